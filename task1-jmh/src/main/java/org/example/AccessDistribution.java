@@ -0,0 +1,52 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How benchmark threads pick the two accounts of a transfer.
+ */
+public enum AccessDistribution {
+    /** Every account equally likely. */
+    UNIFORM,
+    /** Account rank {@code k} drawn with weight {@code 1 / (k + 1)}: a few hot accounts dominate. */
+    ZIPF,
+    /** Each thread stays inside its own slice of accounts, so threads never share an account. */
+    DISJOINT;
+
+    public static final double ZIPF_EXPONENT = 1.0;
+
+    /**
+     * Per-thread picker over {@code accountCount} accounts for thread {@code thread} of {@code threads}.
+     */
+    public Picker picker(int accountCount, int thread, int threads) {
+        return switch (this) {
+            case UNIFORM -> rnd -> rnd.nextInt(accountCount);
+            case ZIPF -> zipf(accountCount);
+            case DISJOINT -> {
+                int slice = Math.max(2, accountCount / threads);
+                int base = (thread * slice) % accountCount;
+                yield rnd -> (base + rnd.nextInt(slice)) % accountCount;
+            }
+        };
+    }
+
+    private static Picker zipf(int accountCount) {
+        double[] cumulative = new double[accountCount];
+        double sum = 0;
+        for (int i = 0; i < accountCount; i++) {
+            sum += 1.0 / Math.pow(i + 1, ZIPF_EXPONENT);
+            cumulative[i] = sum;
+        }
+        double total = sum;
+        return rnd -> {
+            int index = Arrays.binarySearch(cumulative, rnd.nextDouble(total));
+            return Math.min(index < 0 ? -index - 1 : index, accountCount - 1);
+        };
+    }
+
+    @FunctionalInterface
+    public interface Picker {
+        int next(ThreadLocalRandom rnd);
+    }
+}
@@ -0,0 +1,58 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link BankMetrics} on {@link Bank#transfer}: the same uniform workload with metrics off and on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+    public static final int ACCOUNT_COUNT = 1024;
+
+    @Param({"locking", "lock-free"})
+    public String strategy;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private Bank bank;
+    private List<Account> accounts;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bank = new Bank(TransferStrategies.byName(strategy), null, metrics ? new BankMetrics() : null);
+        accounts = new ArrayList<>(ACCOUNT_COUNT);
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            accounts.add(new Account(TransferBenchmark.INITIAL_BALANCE));
+        }
+    }
+
+    @Benchmark
+    public TransferResult transfer() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(ACCOUNT_COUNT);
+        int to = (from + 1 + rnd.nextInt(ACCOUNT_COUNT - 1)) % ACCOUNT_COUNT;
+        return bank.transfer(accounts.get(from), accounts.get(to), 1);
+    }
+}
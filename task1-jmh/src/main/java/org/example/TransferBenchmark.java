@@ -0,0 +1,89 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Bank#transfer} under every strategy {@link TransferStrategies#byName} knows. A new transfer
+ * implementation is compared against the others by registering it there and adding its name to
+ * {@code strategy}, or by passing {@code -p strategy=...} on the command line.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBenchmark {
+    public static final long INITIAL_BALANCE = 1_000_000_000L;
+
+    @State(Scope.Benchmark)
+    public static class BankState {
+        @Param({"locking", "lock-free", "striped", "sharded", "hot"})
+        public String strategy;
+
+        @Param({"64", "4096"})
+        public int accountCount;
+
+        @Param({"UNIFORM", "ZIPF", "DISJOINT"})
+        public AccessDistribution distribution;
+
+        Bank bank;
+        TransferStrategy transferStrategy;
+        List<Account> accounts;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            transferStrategy = TransferStrategies.byName(strategy);
+            bank = new Bank(transferStrategy);
+            accounts = new ArrayList<>(accountCount);
+            for (int i = 0; i < accountCount; i++) {
+                accounts.add(new Account(INITIAL_BALANCE));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (transferStrategy instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        AccessDistribution.Picker picker;
+
+        @Setup(Level.Trial)
+        public void setUp(BankState bank, ThreadParams threads) {
+            picker = bank.distribution.picker(bank.accountCount, threads.getThreadIndex(), threads.getThreadCount());
+        }
+    }
+
+    @Benchmark
+    public TransferResult transfer(BankState state, ThreadState thread) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = thread.picker.next(rnd);
+        int to = thread.picker.next(rnd);
+        while (to == from) {
+            to = thread.picker.next(rnd);
+        }
+        return state.bank.transfer(state.accounts.get(from), state.accounts.get(to), 1);
+    }
+}
@@ -1,49 +1,368 @@
 package org.example;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class Account {
+public class Account extends BalanceCell {
+    private static final int BALANCE_READ_ATTEMPTS = 8;
     private static final AtomicLong idGenerator = new AtomicLong(0);
+    private static final VarHandle LOCK;
+    private static final VarHandle SUB_BALANCES;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            LOCK = lookup.findVarHandle(Account.class, "lock", ReentrantLock.class);
+            SUB_BALANCES = lookup.findVarHandle(Account.class, "subBalances", SubBalance[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     private final long id;
-    private final Object lock = new Object();
-    private long balance;
+    // Created on first use so accounts driven only by striped or lock-free transfers never carry a lock.
+    private volatile ReentrantLock lock;
+    // Extra cells while the account is hot. After demotion they stay retired here until no snapshot
+    // could still need their history.
+    private volatile SubBalance[] subBalances;
+    // Contention window for HotAccountPolicy. Racy on purpose: an approximate count is all it needs.
+    private int observedOperations;
+    private int observedConflicts;
 
     public Account(long initialBalance) {
-        this.id = idGenerator.getAndIncrement();
-        this.balance = initialBalance;
+        this(idGenerator.getAndIncrement(), initialBalance);
+    }
+
+    private Account(long id, long initialBalance) {
+        super(initialBalance);
+        this.id = id;
+    }
+
+    /**
+     * Opens one account per entry of {@code initialBalances}. Their ids are a contiguous range reserved
+     * in a single step, so account {@code i} has the first account's id plus {@code i}.
+     */
+    public static List<Account> openAll(long[] initialBalances) {
+        long firstId = reserveIds(initialBalances.length);
+        Account[] accounts = new Account[initialBalances.length];
+        Arrays.parallelSetAll(accounts, i -> new Account(firstId + i, initialBalances[i]));
+        return Arrays.asList(accounts);
+    }
+
+    // Recreates an account under its original id and keeps newly created accounts from reusing it.
+    static Account restore(long id, long balance) {
+        idGenerator.accumulateAndGet(id + 1, Math::max);
+        return new Account(id, balance);
+    }
+
+    // Same as restore for a whole ledger, touching the shared id generator only once.
+    static List<Account> restoreAll(long[] ids, long[] balances) {
+        long maxId = Arrays.stream(ids).parallel().max().orElse(-1);
+        idGenerator.accumulateAndGet(maxId + 1, Math::max);
+        Account[] accounts = new Account[ids.length];
+        Arrays.parallelSetAll(accounts, i -> new Account(ids[i], balances[i]));
+        return Arrays.asList(accounts);
+    }
+
+    static long reserveIds(int count) {
+        return idGenerator.getAndAdd(count);
     }
 
     public long getId() {
         return id;
     }
 
+    // Balances are immutable versions swapped in by one CAS and never reinstated once replaced, so
+    // seeing the same sub-balance array and the same version in every cell on two passes means they
+    // all held those values together at an instant in between. The read never waits for a writer;
+    // if commits keep moving a hot account's cells it falls back to a validated no-op commit.
     public long getBalance() {
-        synchronized (lock) {
-            return balance;
+        for (int attempt = 0; attempt < BALANCE_READ_ATTEMPTS; attempt++) {
+            SubBalance[] cells = subBalances;
+            Balance primary = readBalance();
+            if (cells == null) {
+                if (subBalances == null) {
+                    return primary.value();
+                }
+                continue;
+            }
+
+            long balance = primary.value();
+            Balance[] versions = new Balance[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                versions[i] = cells[i].readBalance();
+                balance += versions[i].value();
+            }
+            boolean unchanged = subBalances == cells && readBalance() == primary;
+            for (int i = 0; i < cells.length && unchanged; i++) {
+                unchanged = cells[i].readBalance() == versions[i];
+            }
+            if (unchanged) {
+                return balance;
+            }
         }
+        return validatedBalance();
+    }
+
+    public boolean isHot() {
+        SubBalance[] cells = subBalances;
+        return cells != null && !cells[0].readBalance().isRetired();
     }
 
     public boolean withdraw(long amount) {
         if (amount <= 0) return false;
-        synchronized (lock) {
-            if (balance >= amount) {
-                balance -= amount;
+        while (true) {
+            BalanceCell cell = debitCell(amount);
+            if (cell == null) {
+                if (!consolidate(amount)) {
+                    return false;
+                }
+                continue;
+            }
+            Balance current = cell.readBalance();
+            if (current.isRetired() || current.value() < amount) {
+                continue;
+            }
+            if (cell.compareAndSetState(current, current.next(current.value() - amount))) {
                 return true;
             }
-            return false;
         }
     }
 
     public void deposit(long amount) {
         if (amount <= 0) return;
-        synchronized (lock) {
-            balance += amount;
+        while (true) {
+            BalanceCell cell = creditCell();
+            Balance current = cell.readBalance();
+            if (current.isRetired()) {
+                continue;
+            }
+            if (cell.compareAndSetState(current, current.next(current.value() + amount))) {
+                return;
+            }
         }
     }
 
-    Object getLock() {
-        return lock;
+    /**
+     * Debits the primary cell with a plain store. Only for the account's single writer, inside a
+     * {@link CommitClock.Writer} commit, while the account is not hot.
+     */
+    boolean debitOwned(long amount, long commitStamp) {
+        Balance current = readBalance();
+        if (current.value() < amount) {
+            return false;
+        }
+        setState(current.next(current.value() - amount, commitStamp));
+        return true;
+    }
+
+    /**
+     * Credit counterpart of {@link #debitOwned}.
+     */
+    void creditOwned(long amount, long commitStamp) {
+        Balance current = readBalance();
+        setState(current.next(current.value() + amount, commitStamp));
+    }
+
+    long balanceAsOf(long snapshotStamp) {
+        long balance = readBalance().valueAsOf(snapshotStamp);
+        SubBalance[] cells = subBalances;
+        if (cells != null) {
+            for (SubBalance cell : cells) {
+                balance += cell.readBalance().valueAsOf(snapshotStamp);
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * The cell a credit should land in: a random sub-balance while hot, otherwise the account itself.
+     */
+    BalanceCell creditCell() {
+        SubBalance[] cells = subBalances;
+        if (cells == null) {
+            return this;
+        }
+        SubBalance cell = cells[ThreadLocalRandom.current().nextInt(cells.length)];
+        return cell.readBalance().isRetired() ? this : cell;
+    }
+
+    /**
+     * A cell currently holding at least {@code amount}, or {@code null} if no single cell does.
+     */
+    BalanceCell debitCell(long amount) {
+        SubBalance[] cells = subBalances;
+        if (cells != null) {
+            int start = ThreadLocalRandom.current().nextInt(cells.length);
+            for (int i = 0; i < cells.length; i++) {
+                Balance balance = cells[(start + i) % cells.length].readBalance();
+                if (!balance.isRetired() && balance.value() >= amount) {
+                    return cells[(start + i) % cells.length];
+                }
+            }
+        }
+        return readBalance().value() >= amount ? this : null;
+    }
+
+    /**
+     * Called when no single cell can cover {@code amount}: folds every sub-balance into the primary
+     * cell in one atomic step.
+     *
+     * @return {@code false} if the account as a whole, read atomically, holds less than {@code amount}
+     */
+    boolean consolidate(long amount) {
+        while (true) {
+            BalanceCell[] cells = cells();
+            if (cells.length == 1) {
+                return readBalance().value() >= amount;
+            }
+            Balance[] expected = new Balance[cells.length];
+            long[] unchanged = new long[cells.length];
+            long total = 0;
+            boolean retiredMeanwhile = false;
+            for (int i = 0; i < cells.length; i++) {
+                expected[i] = cells[i].readBalance();
+                unchanged[i] = expected[i].value();
+                total += unchanged[i];
+                retiredMeanwhile |= expected[i].isRetired();
+            }
+            if (retiredMeanwhile) {
+                continue;
+            }
+            if (total < amount) {
+                // A no-op commit validates that the cells really did add up to this total at one instant.
+                if (new TransferDescriptor(cells, expected, unchanged).complete()) {
+                    return false;
+                }
+                continue;
+            }
+            long[] folded = new long[cells.length];
+            folded[0] = total;
+            if (new TransferDescriptor(cells, expected, folded).complete()) {
+                return true;
+            }
+        }
+    }
+
+    // Total of every live cell, confirmed by committing it unchanged: the commit only succeeds if
+    // no cell moved between the reads and the commit's decision.
+    private long validatedBalance() {
+        while (true) {
+            BalanceCell[] cells = cells();
+            Balance[] expected = new Balance[cells.length];
+            long[] unchanged = new long[cells.length];
+            long total = 0;
+            boolean retiredMeanwhile = false;
+            for (int i = 0; i < cells.length; i++) {
+                expected[i] = cells[i].readBalance();
+                unchanged[i] = expected[i].value();
+                total += unchanged[i];
+                retiredMeanwhile |= expected[i].isRetired();
+            }
+            if (!retiredMeanwhile && new TransferDescriptor(cells, expected, unchanged).complete()) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * The primary cell followed by every live sub-balance, in acquisition order.
+     */
+    BalanceCell[] cells() {
+        SubBalance[] subs = subBalances;
+        if (subs == null || subs[0].readBalance().isRetired()) {
+            return new BalanceCell[]{this};
+        }
+        BalanceCell[] cells = new BalanceCell[subs.length + 1];
+        cells[0] = this;
+        System.arraycopy(subs, 0, cells, 1, subs.length);
+        return cells;
+    }
+
+    void recordContention(boolean conflicted, HotAccountPolicy policy) {
+        int operations = ++observedOperations;
+        if (conflicted) {
+            observedConflicts++;
+        }
+        if (operations < policy.getWindow()) {
+            return;
+        }
+        double conflictRate = (double) observedConflicts / operations;
+        observedOperations = 0;
+        observedConflicts = 0;
+        if (conflictRate >= policy.getPromoteRate()) {
+            promote(policy.getCells());
+        } else if (conflictRate <= policy.getDemoteRate()) {
+            demote();
+        }
+    }
+
+    void promote(int cellCount) {
+        SubBalance[] current = subBalances;
+        if (current != null) {
+            reclaimRetired(current);
+            return;
+        }
+        SubBalance[] cells = new SubBalance[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = new SubBalance(id, i + 1);
+        }
+        SUB_BALANCES.compareAndSet(this, null, cells);
+    }
+
+    void demote() {
+        SubBalance[] current = subBalances;
+        if (current == null) {
+            return;
+        }
+        while (!current[0].readBalance().isRetired()) {
+            BalanceCell[] cells = new BalanceCell[current.length + 1];
+            cells[0] = this;
+            System.arraycopy(current, 0, cells, 1, current.length);
+            Balance[] expected = new Balance[cells.length];
+            long[] folded = new long[cells.length];
+            for (int i = 0; i < cells.length; i++) {
+                expected[i] = cells[i].readBalance();
+                folded[0] += expected[i].value();
+            }
+            new TransferDescriptor(cells, expected, folded, true).complete();
+        }
+        reclaimRetired(current);
+    }
+
+    // Retired cells still hold history that an open snapshot may read through balanceAsOf. A snapshot
+    // opened after this check is stamped after the retiring commit and never looks at them.
+    private void reclaimRetired(SubBalance[] cells) {
+        if (cells[0].readBalance().isRetired() && !CommitClock.isSnapshotOpen()) {
+            SUB_BALANCES.compareAndSet(this, cells, null);
+        }
+    }
+
+    ReentrantLock getLock() {
+        ReentrantLock current = lock;
+        if (current == null) {
+            ReentrantLock created = new ReentrantLock();
+            current = (ReentrantLock) LOCK.compareAndExchange(this, null, created);
+            if (current == null) {
+                current = created;
+            }
+        }
+        return current;
+    }
+
+    @Override
+    long ownerId() {
+        return id;
+    }
+
+    @Override
+    int cellIndex() {
+        return 0;
     }
 
     @Override
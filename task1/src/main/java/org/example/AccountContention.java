@@ -0,0 +1,7 @@
+package org.example;
+
+/**
+ * Lock contention observed on one account: how often a transfer had to wait for it, and for how long.
+ */
+public record AccountContention(long accountId, long waits, long waitNanos) {
+}
@@ -0,0 +1,155 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Columnar ledger that keeps every balance in one primitive {@code long[]} instead of one heap
+ * {@link Account} per customer. Ids are a contiguous range reserved from the same generator that
+ * numbers {@code Account}s, so the two never collide.
+ */
+public class AccountStore {
+    private static final VarHandle BALANCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long baseId;
+    private final long[] balances;
+    private final AtomicInteger claimed = new AtomicInteger(0);
+    private final AtomicInteger size = new AtomicInteger(0);
+    private final LockStripes stripes;
+
+    public AccountStore(int capacity) {
+        this(capacity, TransferStrategies.DEFAULT_STRIPES);
+    }
+
+    public AccountStore(int capacity, int stripeCount) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+
+        this.balances = new long[capacity];
+        this.stripes = new LockStripes(stripeCount);
+        this.baseId = Account.reserveIds(capacity);
+    }
+
+    /**
+     * Opens an account. Its id only becomes visible once its balance is stored and every lower id is
+     * visible too, so no transfer can reach an account before it holds its opening balance.
+     */
+    public long create(long initialBalance) {
+        int index = claimed.getAndIncrement();
+        if (index >= balances.length) {
+            claimed.decrementAndGet();
+            throw new IllegalStateException("Account store is full: capacity " + balances.length);
+        }
+
+        BALANCES.setRelease(balances, index, initialBalance);
+        // Ids are published in order; an earlier creator is at most a store away from its turn.
+        while (size.get() != index) {
+            Thread.yield();
+        }
+        size.set(index + 1);
+        return baseId + index;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public int capacity() {
+        return balances.length;
+    }
+
+    public boolean contains(long id) {
+        long index = id - baseId;
+        return index >= 0 && index < size();
+    }
+
+    public long getBalance(long id) {
+        return (long) BALANCES.getAcquire(balances, indexOf(id));
+    }
+
+    public boolean withdraw(long id, long amount) {
+        if (amount <= 0) return false;
+        int index = indexOf(id);
+        ReentrantLock lock = stripes.lockAt(stripes.stripeFor(id));
+        lock.lock();
+        try {
+            return debit(index, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void deposit(long id, long amount) {
+        if (amount <= 0) return;
+        int index = indexOf(id);
+        ReentrantLock lock = stripes.lockAt(stripes.stripeFor(id));
+        lock.lock();
+        try {
+            credit(index, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean transfer(long fromId, long toId, long amount) {
+        int fromIndex = indexOf(fromId);
+        int toIndex = indexOf(toId);
+        int fromStripe = stripes.stripeFor(fromId);
+        int toStripe = stripes.stripeFor(toId);
+
+        if (fromStripe == toStripe) {
+            stripes.recordPair(true);
+            return OrderedLocks.callLocked(new ReentrantLock[]{stripes.lockAt(fromStripe)},
+                    () -> move(fromIndex, toIndex, amount));
+        }
+
+        stripes.recordPair(false);
+        ReentrantLock[] ordered = {
+                stripes.lockAt(Math.min(fromStripe, toStripe)), stripes.lockAt(Math.max(fromStripe, toStripe))};
+        return OrderedLocks.callLocked(ordered, () -> move(fromIndex, toIndex, amount));
+    }
+
+    public long totalBalance() {
+        long sum = 0;
+        int count = size();
+        for (int i = 0; i < count; i++) {
+            sum += (long) BALANCES.getAcquire(balances, i);
+        }
+        return sum;
+    }
+
+    public LockStripes getStripes() {
+        return stripes;
+    }
+
+    private boolean move(int fromIndex, int toIndex, long amount) {
+        if (debit(fromIndex, amount)) {
+            credit(toIndex, amount);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean debit(int index, long amount) {
+        long balance = balances[index];
+        if (balance < amount) {
+            return false;
+        }
+        BALANCES.setRelease(balances, index, balance - amount);
+        return true;
+    }
+
+    private void credit(int index, long amount) {
+        BALANCES.setRelease(balances, index, balances[index] + amount);
+    }
+
+    private int indexOf(long id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Unknown account id: " + id);
+        }
+        return (int) (id - baseId);
+    }
+}
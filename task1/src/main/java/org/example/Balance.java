@@ -0,0 +1,65 @@
+package org.example;
+
+final class Balance {
+    private final long value;
+    private final long stamp;
+    private final Balance previous;
+    // Set on the final version of a sub-balance whose funds were folded back into the primary cell.
+    private final boolean retired;
+
+    private Balance(long value, long stamp, Balance previous, boolean retired) {
+        this.value = value;
+        this.stamp = stamp;
+        this.previous = previous;
+        this.retired = retired;
+    }
+
+    static Balance initial(long value) {
+        return new Balance(value, CommitClock.current(), null, false);
+    }
+
+    long value() {
+        return value;
+    }
+
+    long stamp() {
+        return stamp;
+    }
+
+    boolean isRetired() {
+        return retired;
+    }
+
+    Balance next(long newValue) {
+        return next(newValue, CommitClock.current());
+    }
+
+    Balance next(long newValue, long commitStamp) {
+        return new Balance(newValue, commitStamp, predecessorFor(commitStamp), false);
+    }
+
+    Balance retire(long commitStamp) {
+        return new Balance(0, commitStamp, predecessorFor(commitStamp), true);
+    }
+
+    private Balance predecessorFor(long commitStamp) {
+        long floor = CommitClock.snapshotFloor();
+        if (commitStamp <= floor) {
+            return null;
+        }
+        // Link straight to the version the open snapshot reads, so its lookups stay O(1) however
+        // many commits land while it scans. While its stamp is still unknown keep the full chain.
+        return (stamp > floor && floor != CommitClock.OPENING) ? previous : this;
+    }
+
+    /**
+     * Returns the value as of {@code snapshotStamp}, or 0 if this account did not exist yet.
+     */
+    long valueAsOf(long snapshotStamp) {
+        Balance version = this;
+        while (version != null && version.stamp > snapshotStamp) {
+            version = version.previous;
+        }
+        return version == null ? 0 : version.value;
+    }
+}
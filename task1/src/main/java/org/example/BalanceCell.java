@@ -0,0 +1,59 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * One CAS-able balance word. Every account is its own primary cell; hot accounts add
+ * {@link SubBalance} cells. Multi-cell commits acquire cells in {@link #precedes} order.
+ */
+abstract class BalanceCell {
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(BalanceCell.class, "state", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Either a Balance or a TransferDescriptor that is currently committing against this cell.
+    private volatile Object state;
+
+    BalanceCell(long initialBalance) {
+        this.state = Balance.initial(initialBalance);
+    }
+
+    abstract long ownerId();
+
+    abstract int cellIndex();
+
+    static boolean precedes(BalanceCell a, BalanceCell b) {
+        return a.ownerId() != b.ownerId() ? a.ownerId() < b.ownerId() : a.cellIndex() < b.cellIndex();
+    }
+
+    Balance readBalance() {
+        while (true) {
+            Object current = state;
+            if (current instanceof TransferDescriptor descriptor) {
+                descriptor.complete();
+            } else {
+                return (Balance) current;
+            }
+        }
+    }
+
+    Object getState() {
+        return state;
+    }
+
+    // Only for a cell's single writer, which has no competing CAS to lose against.
+    void setState(Object next) {
+        state = next;
+    }
+
+    boolean compareAndSetState(Object expected, Object next) {
+        return STATE.compareAndSet(this, expected, next);
+    }
+}
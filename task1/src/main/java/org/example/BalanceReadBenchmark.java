@@ -0,0 +1,90 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToLongFunction;
+
+public class BalanceReadBenchmark {
+
+    public static final int NUM_ACCOUNTS = 16;
+    public static final int NUM_THREADS = 8;
+    public static final int READS_PER_WRITE = 20;
+    public static final int OPERATIONS_PER_THREAD = 1_000_000;
+    public static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String[] args) throws InterruptedException {
+        ToLongFunction<Account> lockedRead = account -> {
+            account.getLock().lock();
+            try {
+                return account.getBalance();
+            } finally {
+                account.getLock().unlock();
+            }
+        };
+        ToLongFunction<Account> optimisticRead = Account::getBalance;
+
+        System.out.println("Readers/writers: " + NUM_THREADS + " threads, " + READS_PER_WRITE + ":1 read/write ratio");
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run(lockedRead);
+            run(optimisticRead);
+        }
+
+        double lockedOps = run(lockedRead);
+        double optimisticOps = run(optimisticRead);
+
+        System.out.printf("Locked read:     %,.0f ops/s%n", lockedOps);
+        System.out.printf("Optimistic read: %,.0f ops/s%n", optimisticOps);
+        System.out.printf("Speedup:         %.2fx%n", optimisticOps / lockedOps);
+    }
+
+    private static double run(ToLongFunction<Account> read) throws InterruptedException {
+        Bank bank = new Bank(new LockingTransferStrategy());
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < NUM_ACCOUNTS; i++) {
+            accounts.add(new Account(1_000_000));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(NUM_THREADS);
+        long[] sinks = new long[NUM_THREADS];
+
+        long elapsed;
+        try (ExecutorService pool = Executors.newFixedThreadPool(NUM_THREADS)) {
+            for (int t = 0; t < NUM_THREADS; t++) {
+                int thread = t;
+                pool.submit(() -> {
+                    try {
+                        start.await();
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        long sink = 0;
+                        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                            Account account = accounts.get(rnd.nextInt(NUM_ACCOUNTS));
+                            if (i % (READS_PER_WRITE + 1) == 0) {
+                                bank.transfer(account, accounts.get(rnd.nextInt(NUM_ACCOUNTS)), 1);
+                            } else {
+                                sink += read.applyAsLong(account);
+                            }
+                        }
+                        sinks[thread] = sink;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            elapsed = System.nanoTime() - begin;
+        }
+
+        return (double) NUM_THREADS * OPERATIONS_PER_THREAD / elapsed * 1_000_000_000L;
+    }
+}
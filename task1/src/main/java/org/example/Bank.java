@@ -1,19 +1,317 @@
 package org.example;
 
-public class Bank {
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
-    public void transfer(Account from, Account to, long amount) {
-        if (amount <= 0 || from.getId() == to.getId()) return;
+public class Bank implements AutoCloseable {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 10_000;
 
-        Account first = (from.getId() < to.getId()) ? from : to;
-        Account second = (from.getId() < to.getId()) ? to : from;
+    private final TransferStrategy strategy;
+    private final TransferJournal journal;
+    private final BankMetrics metrics;
+    private final Executor asyncExecutor;
+    // Created on the first asynchronous transfer when no executor was passed in; the bank shuts it down.
+    private volatile ExecutorService ownedExecutor;
+    private boolean closed;
+    private final Semaphore inFlight;
+    private final TransferDedupCache dedupCache;
 
-        synchronized (first.getLock()) {
-            synchronized (second.getLock()) {
-                if (from.withdraw(amount)) {
-                    to.deposit(amount);
+    public Bank() {
+        this(new LockingTransferStrategy());
+    }
+
+    public Bank(TransferStrategy strategy) {
+        this(strategy, null);
+    }
+
+    public Bank(TransferStrategy strategy, TransferJournal journal) {
+        this(strategy, journal, null);
+    }
+
+    public Bank(TransferStrategy strategy, TransferJournal journal, BankMetrics metrics) {
+        this(builder().strategy(strategy).journal(journal).metrics(metrics));
+    }
+
+    private Bank(Builder builder) {
+        if (builder.maxInFlight <= 0) {
+            throw new IllegalArgumentException("In-flight limit must be greater than 0");
+        }
+        this.strategy = builder.strategy;
+        this.journal = builder.journal;
+        this.metrics = builder.metrics;
+        this.asyncExecutor = builder.asyncExecutor;
+        this.inFlight = new Semaphore(builder.maxInFlight);
+        this.dedupCache = builder.dedupCache == null ? new TransferDedupCache() : builder.dedupCache;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public BankMetrics getMetrics() {
+        return metrics;
+    }
+
+    public TransferDedupCache getDedupCache() {
+        return dedupCache;
+    }
+
+    /**
+     * @return {@link TransferResult#SUCCESS}, or why the transfer was rejected
+     */
+    public TransferResult transfer(Account from, Account to, long amount) {
+        if (metrics == null) {
+            return execute(from, to, amount);
+        }
+        long start = System.nanoTime();
+        TransferResult result = execute(from, to, amount);
+        metrics.recordTransfer(from, to, amount, result, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Idempotent transfer: the first call with a given {@code transferId} moves the money, and a retry
+     * with the same id, while it is still remembered, returns the first call's result untouched. Reusing
+     * the id for other accounts or another amount returns {@link TransferResult#ID_REUSED}.
+     */
+    public TransferResult transfer(String transferId, Account from, Account to, long amount) {
+        return dedupCache.execute(transferId, from.getId(), to.getId(), amount, () -> transfer(from, to, amount));
+    }
+
+    /**
+     * Runs the transfer on the bank's executor. If the in-flight limit is reached the returned future is
+     * already completed with {@link TransferResult#OVERLOADED}; nothing is queued.
+     */
+    public CompletableFuture<TransferResult> transferAsync(Account from, Account to, long amount) {
+        if (!TransferResult.validate(from, to, amount).isSuccess()) {
+            return CompletableFuture.completedFuture(transfer(from, to, amount));
+        }
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.completedFuture(TransferResult.OVERLOADED);
+        }
+        return submit(from, to, amount);
+    }
+
+    /**
+     * Like {@link #transferAsync(Account, Account, long)}, but when the limit is reached the caller waits
+     * up to {@code maxWait} for a slot before the transfer is rejected with {@link TransferResult#OVERLOADED}.
+     */
+    public CompletableFuture<TransferResult> transferAsync(Account from, Account to, long amount, Duration maxWait) {
+        if (!TransferResult.validate(from, to, amount).isSuccess()) {
+            return CompletableFuture.completedFuture(transfer(from, to, amount));
+        }
+        try {
+            if (!inFlight.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                return CompletableFuture.completedFuture(TransferResult.OVERLOADED);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(TransferResult.OVERLOADED);
+        }
+        return submit(from, to, amount);
+    }
+
+    public int getAvailableInFlight() {
+        return inFlight.availablePermits();
+    }
+
+    private CompletableFuture<TransferResult> submit(Account from, Account to, long amount) {
+        try {
+            return CompletableFuture.supplyAsync(() -> transfer(from, to, amount), executor())
+                    .whenComplete((result, failure) -> inFlight.release());
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            return CompletableFuture.completedFuture(TransferResult.OVERLOADED);
+        }
+    }
+
+    private Executor executor() {
+        if (asyncExecutor != null) {
+            return asyncExecutor;
+        }
+        ExecutorService executor = ownedExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (this) {
+            if (closed) {
+                throw new RejectedExecutionException("Bank is closed");
+            }
+            if (ownedExecutor == null) {
+                ownedExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            }
+            return ownedExecutor;
+        }
+    }
+
+    private TransferResult execute(Account from, Account to, long amount) {
+        TransferResult validation = TransferResult.validate(from, to, amount);
+        if (!validation.isSuccess()) return validation;
+
+        if (journal == null) {
+            return strategy.transfer(from, to, amount, metrics) ? TransferResult.SUCCESS
+                    : TransferResult.INSUFFICIENT_FUNDS;
+        }
+
+        // The sequence number is reserved before the commit, so a closed or failed journal rejects the
+        // transfer before any money moves. The record is written while the commit still excludes other
+        // commits on both accounts, so a recovered prefix never holds a transfer without the commits it
+        // depended on.
+        List<Account> accounts = from.getId() < to.getId() ? List.of(from, to) : List.of(to, from);
+        long seq = strategy.runSerialized(accounts, () -> {
+            long reserved = journal.reserve(1);
+            boolean committed = false;
+            try {
+                committed = strategy.transfer(from, to, amount, metrics);
+            } finally {
+                if (committed) {
+                    journal.write(reserved, from.getId(), to.getId(), amount);
+                } else {
+                    journal.skip(reserved);
                 }
             }
+            return committed ? reserved : -1L;
+        });
+        if (seq < 0) {
+            return TransferResult.INSUFFICIENT_FUNDS;
+        }
+        return awaitDurable(seq) ? TransferResult.SUCCESS : TransferResult.NOT_DURABLE;
+    }
+
+    /**
+     * Applies a settlement batch atomically. Items are checked in order, so an item fails with
+     * {@link TransferResult#INSUFFICIENT_FUNDS} only if the balance left by earlier items is too low;
+     * every account is locked once and receives a single netted update.
+     */
+    public BatchResult transferBatch(List<Transfer> transfers) {
+        TransferBatch batch = new TransferBatch(transfers);
+        if (journal == null) {
+            return new BatchResult(List.of(strategy.runExclusively(batch.accounts(), batch::commit)));
+        }
+
+        long[] lastSeq = {-1};
+        TransferResult[] results = strategy.runSerialized(batch.accounts(), () -> {
+            long first = journal.reserve(transfers.size());
+            TransferResult[] committed = null;
+            try {
+                committed = batch.commit();
+            } finally {
+                for (int i = 0; i < transfers.size(); i++) {
+                    Transfer transfer = transfers.get(i);
+                    if (committed != null && committed[i].isSuccess()) {
+                        journal.write(first + i, transfer.from().getId(), transfer.to().getId(), transfer.amount());
+                        lastSeq[0] = first + i;
+                    } else {
+                        journal.skip(first + i);
+                    }
+                }
+            }
+            return committed;
+        });
+        if (lastSeq[0] >= 0 && !awaitDurable(lastSeq[0])) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i].isSuccess()) {
+                    results[i] = TransferResult.NOT_DURABLE;
+                }
+            }
+        }
+        return new BatchResult(List.of(results));
+    }
+
+    // The transfer is already committed here, so a journal failure must not read as "not applied".
+    private boolean awaitDurable(long seq) {
+        try {
+            journal.awaitDurable(seq);
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Captures a consistent point-in-time view of {@code accounts} without blocking transfers:
+     * every transfer is either fully included or fully excluded.
+     */
+    public BankSnapshot snapshot(List<Account> accounts) {
+        return BankSnapshot.capture(accounts);
+    }
+
+    public TransferResult transfer(AccountStore store, long fromId, long toId, long amount) {
+        TransferResult validation = TransferResult.validate(fromId, toId, amount);
+        if (!validation.isSuccess()) return validation;
+
+        return store.transfer(fromId, toId, amount) ? TransferResult.SUCCESS : TransferResult.INSUFFICIENT_FUNDS;
+    }
+
+    /**
+     * Shuts down the executor the bank created for asynchronous transfers after they have finished. An
+     * executor passed to the builder belongs to the caller and is left running.
+     */
+    @Override
+    public void close() {
+        ExecutorService executor;
+        synchronized (this) {
+            closed = true;
+            executor = ownedExecutor;
+        }
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    public static final class Builder {
+        private TransferStrategy strategy = new LockingTransferStrategy();
+        private TransferJournal journal;
+        private BankMetrics metrics;
+        private Executor asyncExecutor;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private TransferDedupCache dedupCache;
+
+        private Builder() {
+        }
+
+        public Builder strategy(TransferStrategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        public Builder journal(TransferJournal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        public Builder metrics(BankMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Executor for {@link Bank#transferAsync}; by default the bank runs each one on its own virtual thread.
+         */
+        public Builder asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = asyncExecutor;
+            return this;
+        }
+
+        public Builder maxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        public Builder dedupCache(TransferDedupCache dedupCache) {
+            this.dedupCache = dedupCache;
+            return this;
+        }
+
+        public Bank build() {
+            return new Bank(this);
         }
     }
 }
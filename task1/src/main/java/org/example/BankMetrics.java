@@ -0,0 +1,161 @@
+package org.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counters and timers for a {@link Bank}. A bank built without metrics skips all of this behind one
+ * null check. An uncontended transfer pays for two clock reads, one histogram bucket and one
+ * {@link LongAdder}; attempts are counted by the histogram itself, and lock waits are only timed once
+ * a lock was missed.
+ */
+public class BankMetrics implements BankMetricsMXBean {
+    public static final long DEFAULT_SLOW_TRANSFER_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    public static final int HOTTEST_ACCOUNTS_REPORTED = 10;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder insufficientFunds = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAdder slowTransfers = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final ConcurrentHashMap<Long, Contention> contention = new ConcurrentHashMap<>();
+    private volatile long slowTransferThresholdNanos;
+
+    public BankMetrics() {
+        this(DEFAULT_SLOW_TRANSFER_NANOS);
+    }
+
+    public BankMetrics(long slowTransferThresholdNanos) {
+        this.slowTransferThresholdNanos = slowTransferThresholdNanos;
+    }
+
+    /**
+     * Registers this instance with the platform MBean server as {@code org.example:type=BankMetrics,name=...}.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("org.example:type=BankMetrics,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    void recordTransfer(Account from, Account to, long amount, TransferResult result, long nanos) {
+        if (result.isSuccess()) {
+            succeeded.increment();
+        } else if (result == TransferResult.INSUFFICIENT_FUNDS) {
+            insufficientFunds.increment();
+        }
+        latencies.record(nanos);
+
+        if (nanos >= slowTransferThresholdNanos) {
+            slowTransfers.increment();
+            SlowTransferEvent event = new SlowTransferEvent();
+            if (event.isEnabled()) {
+                event.fromAccount = from.getId();
+                event.toAccount = to.getId();
+                event.amount = amount;
+                event.result = result.name();
+                event.latency = nanos;
+                event.commit();
+            }
+        }
+    }
+
+    void recordLockWait(Account account, long nanos) {
+        lockWaitNanos.add(nanos);
+        Contention counters = contention.computeIfAbsent(account.getId(), id -> new Contention());
+        counters.waits.increment();
+        counters.waitNanos.add(nanos);
+    }
+
+    public List<AccountContention> hottestAccounts(int limit) {
+        List<AccountContention> accounts = new ArrayList<>(contention.size());
+        contention.forEach((id, counters) ->
+                accounts.add(new AccountContention(id, counters.waits.sum(), counters.waitNanos.sum())));
+        accounts.sort(Comparator.comparingLong(AccountContention::waitNanos).reversed());
+        return accounts.subList(0, Math.min(limit, accounts.size()));
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getTransfersAttempted() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getTransfersSucceeded() {
+        return succeeded.sum();
+    }
+
+    @Override
+    public long getTransfersRejected() {
+        return getTransfersAttempted() - succeeded.sum();
+    }
+
+    @Override
+    public long getInsufficientFunds() {
+        return insufficientFunds.sum();
+    }
+
+    @Override
+    public long getLockWaitNanos() {
+        return lockWaitNanos.sum();
+    }
+
+    @Override
+    public long getLatencyP50Nanos() {
+        return latencies.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getLatencyP99Nanos() {
+        return latencies.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getLatencyP999Nanos() {
+        return latencies.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMaxNanos() {
+        return latencies.getMax();
+    }
+
+    @Override
+    public long getSlowTransfers() {
+        return slowTransfers.sum();
+    }
+
+    @Override
+    public long getSlowTransferThresholdNanos() {
+        return slowTransferThresholdNanos;
+    }
+
+    @Override
+    public void setSlowTransferThresholdNanos(long thresholdNanos) {
+        this.slowTransferThresholdNanos = thresholdNanos;
+    }
+
+    @Override
+    public String[] getHottestAccounts() {
+        return hottestAccounts(HOTTEST_ACCOUNTS_REPORTED).stream()
+                .map(account -> String.format("account %d: %d waits, %d us",
+                        account.accountId(), account.waits(), account.waitNanos() / 1_000))
+                .toArray(String[]::new);
+    }
+
+    private static final class Contention {
+        final LongAdder waits = new LongAdder();
+        final LongAdder waitNanos = new LongAdder();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example;
+
+public interface BankMetricsMXBean {
+
+    long getTransfersAttempted();
+
+    long getTransfersSucceeded();
+
+    long getTransfersRejected();
+
+    long getInsufficientFunds();
+
+    long getLockWaitNanos();
+
+    long getLatencyP50Nanos();
+
+    long getLatencyP99Nanos();
+
+    long getLatencyP999Nanos();
+
+    long getLatencyMaxNanos();
+
+    long getSlowTransfers();
+
+    long getSlowTransferThresholdNanos();
+
+    void setSlowTransferThresholdNanos(long thresholdNanos);
+
+    /**
+     * The accounts that waited longest for locks, most contended first.
+     */
+    String[] getHottestAccounts();
+}
@@ -0,0 +1,73 @@
+package org.example;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Point-in-time view of a set of accounts. Balances are aligned with the order of the accounts the
+ * snapshot was taken over.
+ */
+public class BankSnapshot {
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    private final long stamp;
+    private final long[] ids;
+    private final long[] balances;
+    private final long total;
+
+    private BankSnapshot(long stamp, long[] ids, long[] balances, long total) {
+        this.stamp = stamp;
+        this.ids = ids;
+        this.balances = balances;
+        this.total = total;
+    }
+
+    static BankSnapshot capture(List<Account> accounts) {
+        long stamp = CommitClock.openSnapshot();
+        try {
+            int size = accounts.size();
+            long[] ids = new long[size];
+            long[] balances = new long[size];
+            int chunks = (size + PARALLEL_THRESHOLD - 1) / PARALLEL_THRESHOLD;
+            IntStream range = IntStream.range(0, chunks);
+            long total = (chunks > 1 ? range.parallel() : range)
+                    .mapToLong(c -> capture(accounts, ids, balances, stamp, c * PARALLEL_THRESHOLD,
+                            Math.min(size, (c + 1) * PARALLEL_THRESHOLD)))
+                    .sum();
+            return new BankSnapshot(stamp, ids, balances, total);
+        } finally {
+            CommitClock.closeSnapshot();
+        }
+    }
+
+    public long getStamp() {
+        return stamp;
+    }
+
+    public int size() {
+        return balances.length;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public long balanceAt(int index) {
+        return balances[index];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    private static long capture(List<Account> accounts, long[] ids, long[] balances, long stamp, int from, int to) {
+        long sum = 0;
+        for (int i = from; i < to; i++) {
+            Account account = accounts.get(i);
+            ids[i] = account.getId();
+            balances[i] = account.balanceAsOf(stamp);
+            sum += balances[i];
+        }
+        return sum;
+    }
+}
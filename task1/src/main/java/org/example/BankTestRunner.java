@@ -1,12 +1,19 @@
 package org.example;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
 
 public class BankTestRunner {
 
@@ -15,19 +22,97 @@ public class BankTestRunner {
     public static final int NUM_TRANSACTIONS = 100_000;
     public static final int MAX_TRANSFER_AMOUNT = 50;
     public static final int NUM_THREADS = 50;
+    public static final int MAX_IN_FLIGHT = 10_000;
+    public static final int DEFAULT_DURATION_SECONDS = 10;
 
-    public static void main(String[] args) throws InterruptedException {
-        Bank bank = new Bank();
+    /**
+     * Usage: {@code BankTestRunner [strategy] [durability] [--rate=N] [--duration=S] [--threads=platform|virtual]
+     * [--metrics]}. Without {@code --rate} the runner is closed-loop and compares platform and virtual threads;
+     * with it, transfers are issued open-loop at {@code N} per second for {@code S} seconds. {@code --metrics}
+     * publishes {@link BankMetrics} over JMX and prints the most contended accounts.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException, JMException {
+        List<String> positional = new ArrayList<>();
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(2, separator < 0 ? arg.length() : separator),
+                        separator < 0 ? "" : arg.substring(separator + 1));
+            } else {
+                positional.add(arg);
+            }
+        }
+
+        String strategy = positional.size() > 0 ? positional.get(0) : "locking";
+        TransferStrategy transferStrategy = TransferStrategies.byName(strategy);
+        TransferJournal journal = positional.size() > 1
+                ? TransferJournal.open(Files.createTempDirectory("bank-journal"),
+                        DurabilityMode.valueOf(positional.get(1)))
+                : null;
+        BankMetrics metrics = options.containsKey("metrics") ? new BankMetrics() : null;
+        if (metrics != null) {
+            System.out.println("Metrics MBean: " + metrics.register(strategy));
+        }
+        Bank bank = new Bank(transferStrategy, journal, metrics);
         List<Account> accounts = createAccounts();
 
+        System.out.println("Transfer strategy: " + strategy);
+        if (journal != null) {
+            System.out.println("Journal durability: " + journal.getMode());
+            accounts.forEach(journal::recordOpening);
+        }
+
         long initialTotal = totalBalance(accounts);
         System.out.println("Initial bank balance: " + initialTotal);
 
-        executeTransfers(bank, accounts);
+        if (options.containsKey("rate")) {
+            runOpenLoop(bank, accounts, Integer.parseInt(options.get("rate")),
+                    Integer.parseInt(options.getOrDefault("duration", String.valueOf(DEFAULT_DURATION_SECONDS))),
+                    options.getOrDefault("threads", "virtual"));
+        } else {
+            ExecutionStats platform = executeTransfers(bank, accounts, "platform",
+                    Executors.newFixedThreadPool(NUM_THREADS));
+            ExecutionStats virtual = executeTransfers(bank, accounts, "virtual",
+                    Executors.newVirtualThreadPerTaskExecutor());
+
+            System.out.printf("%nUp to %d transfers in flight%n", MAX_IN_FLIGHT);
+            printHeader("Threads", "Transfers/s");
+            platform.print();
+            virtual.print();
+            System.out.println();
+        }
+
+        if (metrics != null) {
+            System.out.printf("Transfers: %d attempted, %d succeeded, %d slow, %d ms waiting for locks%n",
+                    metrics.getTransfersAttempted(), metrics.getTransfersSucceeded(), metrics.getSlowTransfers(),
+                    metrics.getLockWaitNanos() / 1_000_000);
+            for (String account : metrics.getHottestAccounts()) {
+                System.out.println("  " + account);
+            }
+        }
+        if (transferStrategy instanceof StripedLockTransferStrategy striped) {
+            LockStripes stripes = striped.getStripes();
+            System.out.printf("Stripe collisions: %d of %d transfers (%.2f%%)%n",
+                    stripes.getCollisions(), stripes.getPairAcquisitions(), stripes.getCollisionRate() * 100);
+        }
+        if (transferStrategy instanceof ShardedTransferStrategy sharded) {
+            System.out.println("Cross-shard transfers: " + sharded.getCrossShardTransfers());
+            sharded.close();
+        }
 
         long finalTotal = totalBalance(accounts);
         System.out.println("Final bank balance:   " + finalTotal);
 
+        if (journal != null) {
+            journal.close();
+            long recoveredTotal = 0;
+            for (Account account : TransferJournal.recoverAccounts(journal.getDirectory())) {
+                recoveredTotal += account.getBalance();
+            }
+            System.out.println("Recovered from journal: " + recoveredTotal);
+        }
+
         if (initialTotal == finalTotal) {
             System.out.println("\nSUCCESS: Balance remained unchanged.");
         } else {
@@ -44,21 +129,54 @@ public class BankTestRunner {
         return accounts;
     }
 
-    private static void executeTransfers(Bank bank, List<Account> accounts) throws InterruptedException {
+    private static void runOpenLoop(Bank bank, List<Account> accounts, int rate, int seconds, String threads)
+            throws InterruptedException {
+        System.out.printf("Issuing %d transfers/s for %d s on %s threads...%n", rate, seconds, threads);
+
+        LoadGenerator generator = new LoadGenerator(bank, accounts, rate, rate * seconds, MAX_TRANSFER_AMOUNT);
+        LoadGenerator.Report report;
+        try (ExecutorService executor = threads.equals("platform")
+                ? Executors.newFixedThreadPool(NUM_THREADS)
+                : Executors.newVirtualThreadPerTaskExecutor()) {
+            report = generator.run(executor);
+        }
+
+        System.out.printf("%nLatency from scheduled start (coordinated-omission corrected)%n");
+        printHeader("Target/s", "Achieved/s");
+        printRow(String.valueOf(rate), report.achievedRate(), report.latencies(),
+                report.count(TransferResult.INSUFFICIENT_FUNDS));
+        System.out.println();
+    }
+
+    private static ExecutionStats executeTransfers(Bank bank, List<Account> accounts, String threads,
+                                                   ExecutorService executor) throws InterruptedException {
         CountDownLatch latch = new CountDownLatch(NUM_TRANSACTIONS);
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder rejected = new LongAdder();
 
-        System.out.println("Starting " + NUM_TRANSACTIONS + " transactions...");
+        System.out.println("Starting " + NUM_TRANSACTIONS + " transactions on " + threads + " threads...");
 
-        try (ExecutorService pool = Executors.newFixedThreadPool(NUM_THREADS)) {
+        long start = System.nanoTime();
+        try (executor) {
             for (int i = 0; i < NUM_TRANSACTIONS; i++) {
-                pool.submit(() -> {
+                if (i == NUM_TRANSACTIONS / 2) {
+                    System.out.println("Live audit total: " + bank.snapshot(accounts).total());
+                }
+                inFlight.acquire();
+                long submitted = System.nanoTime();
+                executor.submit(() -> {
                     try {
                         ThreadLocalRandom rnd = ThreadLocalRandom.current();
                         Account from = accounts.get(rnd.nextInt(NUM_ACCOUNTS));
                         Account to = accounts.get(rnd.nextInt(NUM_ACCOUNTS));
                         long amount = rnd.nextLong(1, MAX_TRANSFER_AMOUNT + 1);
-                        bank.transfer(from, to, amount);
+                        if (bank.transfer(from, to, amount) == TransferResult.INSUFFICIENT_FUNDS) {
+                            rejected.increment();
+                        }
                     } finally {
+                        latencies.record(System.nanoTime() - submitted);
+                        inFlight.release();
                         latch.countDown();
                     }
                 });
@@ -66,8 +184,29 @@ public class BankTestRunner {
 
             latch.await();
         }
+        long elapsed = System.nanoTime() - start;
 
         System.out.println("All transactions finished.");
+        return new ExecutionStats(threads, elapsed, latencies, rejected.sum());
+    }
+
+    // Latency runs from submission to completion, so it includes time spent queued for a thread.
+    private record ExecutionStats(String threads, long elapsedNanos, LatencyHistogram latencies, long rejected) {
+
+        void print() {
+            printRow(threads, latencies.getCount() / (elapsedNanos / 1e9), latencies, rejected);
+        }
+    }
+
+    private static void printHeader(String label, String rate) {
+        System.out.printf("%-10s %14s %10s %10s %10s %10s %10s%n",
+                label, rate, "p50 us", "p99 us", "p99.9 us", "max us", "Rejected");
+    }
+
+    private static void printRow(String label, double rate, LatencyHistogram latencies, long rejected) {
+        System.out.printf("%-10s %,14.0f %,10d %,10d %,10d %,10d %,10d%n", label, rate,
+                latencies.getValueAtPercentile(50) / 1_000, latencies.getValueAtPercentile(99) / 1_000,
+                latencies.getValueAtPercentile(99.9) / 1_000, latencies.getMax() / 1_000, rejected);
     }
 
     private static long totalBalance(List<Account> accounts) {
@@ -0,0 +1,22 @@
+package org.example;
+
+import java.util.List;
+
+public record BatchResult(List<TransferResult> results) {
+
+    public TransferResult get(int index) {
+        return results.get(index);
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public long succeeded() {
+        return results.stream().filter(TransferResult::isSuccess).count();
+    }
+
+    public long failed() {
+        return results.size() - succeeded();
+    }
+}
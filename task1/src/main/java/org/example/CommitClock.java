@@ -0,0 +1,94 @@
+package org.example;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Global stamp source for balance versions. Commits only read the clock; opening a snapshot is the
+ * only thing that advances it, so every commit stamped at or below a snapshot's stamp belongs to it.
+ * Snapshots are serialized among themselves, never against commits.
+ */
+final class CommitClock {
+    static final long OPENING = -1;
+    private static final long NO_SNAPSHOT = Long.MAX_VALUE;
+
+    private static final AtomicLong clock = new AtomicLong(0);
+    private static final ReentrantLock snapshotLock = new ReentrantLock();
+    private static volatile long snapshotStamp = NO_SNAPSHOT;
+    private static final Set<Writer> writers = ConcurrentHashMap.newKeySet();
+
+    private CommitClock() {
+    }
+
+    static long current() {
+        return clock.get();
+    }
+
+    static long openSnapshot() {
+        snapshotLock.lock();
+        // Publish the marker before taking the stamp so writers keep history the snapshot may need.
+        snapshotStamp = OPENING;
+        for (Writer writer : writers) {
+            while (writer.committing) {
+                Thread.onSpinWait();
+            }
+        }
+        long stamp = clock.getAndIncrement();
+        snapshotStamp = stamp;
+        return stamp;
+    }
+
+    static void closeSnapshot() {
+        snapshotStamp = NO_SNAPSHOT;
+        snapshotLock.unlock();
+    }
+
+    /**
+     * Stamp of the open snapshot, {@link #OPENING} while one is being opened, or {@link Long#MAX_VALUE}
+     * when none is open. It must be read after the committing stamp was read from the clock.
+     */
+    static long snapshotFloor() {
+        return snapshotStamp;
+    }
+
+    static boolean isSnapshotOpen() {
+        return snapshotStamp != NO_SNAPSHOT;
+    }
+
+    static Writer registerWriter() {
+        Writer writer = new Writer();
+        writers.add(writer);
+        return writer;
+    }
+
+    static void unregisterWriter(Writer writer) {
+        writers.remove(writer);
+    }
+
+    /**
+     * Lets the only writer of a set of cells commit to several of them with plain stores. A snapshot
+     * that starts opening waits for a commit already past {@link #begin}; once one is opening,
+     * {@link #begin} refuses and the writer falls back to an atomic commit.
+     */
+    static final class Writer {
+        private volatile boolean committing;
+
+        private Writer() {
+        }
+
+        boolean begin() {
+            committing = true;
+            if (snapshotStamp != NO_SNAPSHOT) {
+                committing = false;
+                return false;
+            }
+            return true;
+        }
+
+        void end() {
+            committing = false;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example;
+
+public enum DurabilityMode {
+    /** Every transfer returns only after a force that covers its record; concurrent callers share it. */
+    PER_TRANSFER,
+    /** Transfers wait for the background flusher, which forces a whole batch at once. */
+    BATCHED,
+    /** Transfers never wait; the background flusher forces periodically. */
+    ASYNC
+}
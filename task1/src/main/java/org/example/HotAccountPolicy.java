@@ -0,0 +1,51 @@
+package org.example;
+
+/**
+ * When to split an account into sub-balances and when to fold it back. Every account counts how
+ * many of its last {@code window} commits had to be retried; at or above {@code promoteRate} it is
+ * promoted into {@code cells} sub-balances, at or below {@code demoteRate} it is demoted again.
+ */
+public final class HotAccountPolicy {
+    public static final int DEFAULT_CELLS = 8;
+    public static final int DEFAULT_WINDOW = 1024;
+    public static final double DEFAULT_PROMOTE_RATE = 0.05;
+    public static final double DEFAULT_DEMOTE_RATE = 0.005;
+
+    private final int cells;
+    private final int window;
+    private final double promoteRate;
+    private final double demoteRate;
+
+    public HotAccountPolicy(int cells, int window, double promoteRate, double demoteRate) {
+        if (cells <= 0 || window <= 0) {
+            throw new IllegalArgumentException("Cells and window must be positive");
+        }
+        if (demoteRate > promoteRate) {
+            throw new IllegalArgumentException("Demote rate must not exceed promote rate");
+        }
+        this.cells = cells;
+        this.window = window;
+        this.promoteRate = promoteRate;
+        this.demoteRate = demoteRate;
+    }
+
+    public static HotAccountPolicy withCells(int cells) {
+        return new HotAccountPolicy(cells, DEFAULT_WINDOW, DEFAULT_PROMOTE_RATE, DEFAULT_DEMOTE_RATE);
+    }
+
+    public int getCells() {
+        return cells;
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    public double getPromoteRate() {
+        return promoteRate;
+    }
+
+    public double getDemoteRate() {
+        return demoteRate;
+    }
+}
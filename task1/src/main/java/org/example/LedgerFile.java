@@ -0,0 +1,318 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk import and export of account balances. Reads map the file and parse it in parallel chunks;
+ * writes format chunks in parallel and store each one with a positional write. Accounts keep their
+ * ids, so a ledger exported before a restart loads back into the same accounts.
+ */
+public final class LedgerFile {
+    static final int MAGIC = 0x4C444752;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 16;
+    static final int MAX_LINE_LENGTH = 128;
+    static final int MIN_CHUNK_RECORDS = 16_384;
+    static final int MAX_CHUNK_RECORDS = 1 << 20;
+    static final int CSV_BYTES_PER_RECORD = 24;
+    private static final byte[] CSV_HEADER = "id,balance\n".getBytes(StandardCharsets.US_ASCII);
+
+    private LedgerFile() {
+    }
+
+    public static List<Account> read(Path path, LedgerFormat format) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return format == LedgerFormat.BINARY ? readBinary(channel) : readCsv(channel);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a consistent snapshot of {@code accounts}.
+     */
+    public static void write(Path path, LedgerFormat format, List<Account> accounts) throws IOException {
+        write(path, format, BankSnapshot.capture(accounts));
+    }
+
+    public static void write(Path path, LedgerFormat format, BankSnapshot snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == LedgerFormat.BINARY) {
+                writeBinary(channel, snapshot);
+            } else {
+                writeCsv(channel, snapshot);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static List<Account> readBinary(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a version " + VERSION + " binary ledger");
+        }
+        long count = header.getLong();
+        if (count < 0 || count > Integer.MAX_VALUE || channel.size() != HEADER_SIZE + count * RECORD_SIZE) {
+            throw new IOException("Binary ledger size does not match its record count " + count);
+        }
+
+        int records = (int) count;
+        long[] ids = new long[records];
+        long[] balances = new long[records];
+        int chunk = chunkSize(records);
+        IntStream.range(0, (records + chunk - 1) / chunk).parallel().forEach(c -> {
+            int from = c * chunk;
+            int to = Math.min(records, from + chunk);
+            MappedByteBuffer buffer = map(channel, HEADER_SIZE + (long) from * RECORD_SIZE, (long) (to - from) * RECORD_SIZE);
+            for (int i = from; i < to; i++) {
+                ids[i] = buffer.getLong();
+                balances[i] = buffer.getLong();
+            }
+        });
+        return Account.restoreAll(ids, balances);
+    }
+
+    private static List<Account> readCsv(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long chunk = (long) chunkSize((int) Math.min(Integer.MAX_VALUE, size / CSV_BYTES_PER_RECORD))
+                * CSV_BYTES_PER_RECORD;
+        int chunks = (int) ((size + chunk - 1) / chunk);
+        CsvChunk[] parsed = new CsvChunk[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> parsed[c] = parseCsv(channel, size, c * chunk,
+                Math.min(size, (c + 1) * chunk)));
+
+        int total = 0;
+        for (CsvChunk part : parsed) {
+            total += part.count;
+        }
+        long[] ids = new long[total];
+        long[] balances = new long[total];
+        int offset = 0;
+        for (CsvChunk part : parsed) {
+            System.arraycopy(part.ids, 0, ids, offset, part.count);
+            System.arraycopy(part.balances, 0, balances, offset, part.count);
+            offset += part.count;
+        }
+        return Account.restoreAll(ids, balances);
+    }
+
+    // Parses the lines that start inside [start, end); the last one may run up to MAX_LINE_LENGTH past end.
+    private static CsvChunk parseCsv(FileChannel channel, long size, long start, long end) {
+        long mapStart = Math.max(0, start - 1);
+        MappedByteBuffer buffer = map(channel, mapStart, Math.min(size, end + MAX_LINE_LENGTH) - mapStart);
+        int limit = buffer.limit();
+        int chunkEnd = (int) (end - mapStart);
+        int position = 0;
+        if (start > 0) {
+            while (position < limit && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        CsvChunk result = new CsvChunk();
+        while (position < chunkEnd && position < limit) {
+            int lineEnd = position;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && mapStart + limit < size) {
+                throw malformed(channel, mapStart + position, "Ledger line longer than " + MAX_LINE_LENGTH + " bytes");
+            }
+            int contentEnd = lineEnd > position && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (contentEnd > position && isNumberStart(buffer.get(position))) {
+                int comma = position;
+                while (comma < contentEnd && buffer.get(comma) != ',') {
+                    comma++;
+                }
+                if (comma == contentEnd) {
+                    throw malformed(channel, mapStart + position, "Malformed ledger line");
+                }
+                result.add(parseLong(buffer, position, comma, channel, mapStart),
+                        parseLong(buffer, comma + 1, contentEnd, channel, mapStart));
+            } else if (contentEnd > position && !(mapStart + position == 0 && isHeader(buffer, contentEnd))) {
+                throw malformed(channel, mapStart + position, "Malformed ledger line");
+            }
+            position = lineEnd + 1;
+        }
+        return result;
+    }
+
+    private static void writeBinary(FileChannel channel, BankSnapshot snapshot) throws IOException {
+        int records = snapshot.size();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION).putLong(records).flip();
+        writeFully(channel, header, 0);
+
+        int chunk = chunkSize(records);
+        IntStream.range(0, (records + chunk - 1) / chunk).parallel().forEach(c -> {
+            int from = c * chunk;
+            int to = Math.min(records, from + chunk);
+            ByteBuffer buffer = ByteBuffer.allocate((to - from) * RECORD_SIZE);
+            for (int i = from; i < to; i++) {
+                buffer.putLong(snapshot.idAt(i)).putLong(snapshot.balanceAt(i));
+            }
+            writeFully(channel, buffer.flip(), HEADER_SIZE + (long) from * RECORD_SIZE);
+        });
+    }
+
+    private static void writeCsv(FileChannel channel, BankSnapshot snapshot) {
+        int records = snapshot.size();
+        int chunk = chunkSize(records);
+        int chunks = (records + chunk - 1) / chunk;
+        ByteBuffer[] formatted = new ByteBuffer[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int from = c * chunk;
+            int to = Math.min(records, from + chunk);
+            // Two 20-digit longs, a sign, a comma and a newline per line at most.
+            ByteBuffer buffer = ByteBuffer.allocate((to - from) * 43);
+            for (int i = from; i < to; i++) {
+                putLong(buffer, snapshot.idAt(i));
+                buffer.put((byte) ',');
+                putLong(buffer, snapshot.balanceAt(i));
+                buffer.put((byte) '\n');
+            }
+            formatted[c] = buffer.flip();
+        });
+
+        long[] offsets = new long[chunks];
+        long offset = CSV_HEADER.length;
+        for (int c = 0; c < chunks; c++) {
+            offsets[c] = offset;
+            offset += formatted[c].remaining();
+        }
+        writeFully(channel, ByteBuffer.wrap(CSV_HEADER), 0);
+        IntStream.range(0, chunks).parallel().forEach(c -> writeFully(channel, formatted[c], offsets[c]));
+    }
+
+    // Records per parallel chunk: a few chunks per core, but never so large that one buffer gets huge.
+    private static int chunkSize(int records) {
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        return Math.clamp((records + (long) parallelism - 1) / parallelism, MIN_CHUNK_RECORDS, MAX_CHUNK_RECORDS);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long size) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isNumberStart(byte b) {
+        return b == '-' || (b >= '0' && b <= '9');
+    }
+
+    private static boolean isHeader(MappedByteBuffer buffer, int contentEnd) {
+        if (contentEnd != CSV_HEADER.length - 1) {
+            return false;
+        }
+        for (int i = 0; i < contentEnd; i++) {
+            if (buffer.get(i) != CSV_HEADER[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Accumulates negatively so Long.MIN_VALUE, whose magnitude has no positive long, parses too.
+    private static long parseLong(MappedByteBuffer buffer, int from, int to, FileChannel channel, long mapStart) {
+        boolean negative = from < to && buffer.get(from) == '-';
+        int position = negative ? from + 1 : from;
+        if (position == to || to - position > 19) {
+            throw malformed(channel, mapStart + from, "Malformed number");
+        }
+        long value = 0;
+        try {
+            for (; position < to; position++) {
+                int digit = buffer.get(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw malformed(channel, mapStart + from, "Malformed number");
+                }
+                value = Math.subtractExact(Math.multiplyExact(value, 10), digit);
+            }
+            return negative ? value : Math.negateExact(value);
+        } catch (ArithmeticException e) {
+            throw malformed(channel, mapStart + from, "Number out of range");
+        }
+    }
+
+    // Only built for a bad line, so counting the newlines before it from the start of the file is fine.
+    private static IllegalArgumentException malformed(FileChannel channel, long offset, String problem) {
+        long line = 1;
+        for (long start = 0; start < offset; start += Integer.MAX_VALUE) {
+            MappedByteBuffer buffer = map(channel, start, Math.min(Integer.MAX_VALUE, offset - start));
+            for (int i = 0; i < buffer.limit(); i++) {
+                if (buffer.get(i) == '\n') {
+                    line++;
+                }
+            }
+        }
+        return new IllegalArgumentException(problem + " on line " + line);
+    }
+
+    private static void putLong(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                buffer.put("9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= buffer.position(); i--) {
+            buffer.put(i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(end);
+    }
+
+    private static final class CsvChunk {
+        long[] ids = new long[1024];
+        long[] balances = new long[1024];
+        int count;
+
+        void add(long id, long balance) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                balances = Arrays.copyOf(balances, count * 2);
+            }
+            ids[count] = id;
+            balances[count] = balance;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example;
+
+public enum LedgerFormat {
+    /**
+     * A 16-byte header (magic, version, record count) followed by big-endian {@code (id, balance)} longs.
+     */
+    BINARY,
+    /**
+     * One {@code id,balance} line per account, optionally preceded by an {@code id,balance} header line.
+     */
+    CSV
+}
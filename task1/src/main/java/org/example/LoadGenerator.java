@@ -0,0 +1,94 @@
+package org.example;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop driver: transfer {@code i} is due at {@code start + i / ratePerSecond} whether or not
+ * earlier transfers have finished. Latency is measured from that due time, not from when the task
+ * actually got submitted or started, so stalls in the bank or in the generator itself are charged to
+ * every transfer they delayed instead of being hidden (coordinated omission).
+ */
+public class LoadGenerator {
+    private final Bank bank;
+    private final List<Account> accounts;
+    private final int ratePerSecond;
+    private final int transfers;
+    private final long maxTransferAmount;
+
+    public LoadGenerator(Bank bank, List<Account> accounts, int ratePerSecond, int transfers, long maxTransferAmount) {
+        if (ratePerSecond <= 0 || transfers <= 0 || maxTransferAmount <= 0) {
+            throw new IllegalArgumentException("Rate, transfer count and amount must be greater than 0");
+        }
+        if (accounts.size() < 2) {
+            throw new IllegalArgumentException("At least two accounts are required");
+        }
+        this.bank = bank;
+        this.accounts = accounts;
+        this.ratePerSecond = ratePerSecond;
+        this.transfers = transfers;
+        this.maxTransferAmount = maxTransferAmount;
+    }
+
+    public Report run(Executor executor) throws InterruptedException {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LongAdder[] outcomes = new LongAdder[TransferResult.values().length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new LongAdder();
+        }
+        CountDownLatch done = new CountDownLatch(transfers);
+        double periodNanos = (double) TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < transfers; i++) {
+            long due = start + (long) (i * periodNanos);
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            executor.execute(() -> {
+                try {
+                    TransferResult result = transferRandomly();
+                    outcomes[result.ordinal()].increment();
+                } finally {
+                    latencies.record(System.nanoTime() - due);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        long[] counts = new long[outcomes.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = outcomes[i].sum();
+        }
+        return new Report(elapsed, latencies, counts);
+    }
+
+    private TransferResult transferRandomly() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(accounts.size());
+        int to = rnd.nextInt(accounts.size() - 1);
+        if (to >= from) {
+            to++;
+        }
+        return bank.transfer(accounts.get(from), accounts.get(to), rnd.nextLong(1, maxTransferAmount + 1));
+    }
+
+    public record Report(long elapsedNanos, LatencyHistogram latencies, long[] outcomes) {
+
+        public long count(TransferResult result) {
+            return outcomes[result.ordinal()];
+        }
+
+        public double achievedRate() {
+            return latencies.getCount() / (elapsedNanos / 1e9);
+        }
+    }
+}
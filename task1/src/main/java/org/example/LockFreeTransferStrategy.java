@@ -0,0 +1,21 @@
+package org.example;
+
+public class LockFreeTransferStrategy implements TransferStrategy {
+    private final HotAccountPolicy hotAccountPolicy;
+
+    public LockFreeTransferStrategy() {
+        this(null);
+    }
+
+    /**
+     * With a non-null policy, accounts whose commits keep colliding are split into sub-balances.
+     */
+    public LockFreeTransferStrategy(HotAccountPolicy hotAccountPolicy) {
+        this.hotAccountPolicy = hotAccountPolicy;
+    }
+
+    @Override
+    public boolean transfer(Account from, Account to, long amount) {
+        return TransferDescriptor.transfer(from, to, amount, hotAccountPolicy);
+    }
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class LockStripes {
+    private final ReentrantLock[] locks;
+    private final LongAdder pairAcquisitions = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    public LockStripes(int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Stripe count must be greater than 0");
+        }
+
+        locks = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int getStripeCount() {
+        return locks.length;
+    }
+
+    public int stripeFor(long id) {
+        return (int) Math.floorMod(id, (long) locks.length);
+    }
+
+    ReentrantLock lockAt(int stripe) {
+        return locks[stripe];
+    }
+
+    void recordPair(boolean collided) {
+        pairAcquisitions.increment();
+        if (collided) {
+            collisions.increment();
+        }
+    }
+
+    public long getPairAcquisitions() {
+        return pairAcquisitions.sum();
+    }
+
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public double getCollisionRate() {
+        long pairs = pairAcquisitions.sum();
+        return pairs == 0 ? 0.0 : (double) collisions.sum() / pairs;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class LockingTransferStrategy implements TransferStrategy {
+
+    @Override
+    public boolean transfer(Account from, Account to, long amount) {
+        return transfer(from, to, amount, null);
+    }
+
+    @Override
+    public boolean transfer(Account from, Account to, long amount, BankMetrics metrics) {
+        Account first = (from.getId() < to.getId()) ? from : to;
+        Account second = (from.getId() < to.getId()) ? to : from;
+
+        return OrderedLocks.callLocked(new ReentrantLock[]{first.getLock(), second.getLock()},
+                () -> TransferDescriptor.transfer(from, to, amount),
+                metrics == null ? null : (lock, nanos) -> metrics.recordLockWait(lock == 0 ? first : second, nanos));
+    }
+
+    @Override
+    public <T> T runExclusively(List<Account> accounts, Supplier<T> action) {
+        ReentrantLock[] ordered = new ReentrantLock[accounts.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = accounts.get(i).getLock();
+        }
+        return OrderedLocks.callLocked(ordered, action);
+    }
+}
@@ -0,0 +1,80 @@
+package org.example;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action under a set of locks taken in the given order. Each round tries every lock without
+ * waiting and, on a miss, releases what it holds and parks for a randomized, growing backoff, so a
+ * thread never sits on one account while queued behind another. After {@link #TRY_ROUNDS} misses it
+ * blocks in order, which cannot deadlock. Parking on a {@link ReentrantLock} unmounts a virtual thread
+ * instead of pinning its carrier.
+ */
+final class OrderedLocks {
+    static final int TRY_ROUNDS = 8;
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(256);
+
+    private OrderedLocks() {
+    }
+
+    static <T> T callLocked(ReentrantLock[] ordered, Supplier<T> action) {
+        return callLocked(ordered, action, null);
+    }
+
+    /**
+     * With a {@code listener}, a call that could not take every lock on its first try reports how long
+     * it waited and which lock it missed last.
+     */
+    static <T> T callLocked(ReentrantLock[] ordered, Supplier<T> action, LockWaitListener listener) {
+        acquire(ordered, listener);
+        try {
+            return action.get();
+        } finally {
+            for (int i = ordered.length - 1; i >= 0; i--) {
+                ordered[i].unlock();
+            }
+        }
+    }
+
+    private static void acquire(ReentrantLock[] ordered, LockWaitListener listener) {
+        long waitStart = 0;
+        int missed = 0;
+        long backoff = MIN_BACKOFF_NANOS;
+        for (int round = 0; round < TRY_ROUNDS; round++) {
+            int held = 0;
+            while (held < ordered.length && ordered[held].tryLock()) {
+                held++;
+            }
+            if (held == ordered.length) {
+                if (round > 0 && listener != null) {
+                    listener.waited(missed, System.nanoTime() - waitStart);
+                }
+                return;
+            }
+            if (round == 0 && listener != null) {
+                waitStart = System.nanoTime();
+            }
+            missed = held;
+            for (int i = held - 1; i >= 0; i--) {
+                ordered[i].unlock();
+            }
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(backoff) + 1);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+        }
+        for (ReentrantLock lock : ordered) {
+            lock.lock();
+        }
+        if (listener != null) {
+            listener.waited(missed, System.nanoTime() - waitStart);
+        }
+    }
+
+    @FunctionalInterface
+    interface LockWaitListener {
+        void waited(int lockIndex, long nanos);
+    }
+}
@@ -0,0 +1,320 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Partitions accounts by id across single-writer shards. Every shard applies its commands on one
+ * thread, so same-shard transfers never wait for a lock and update balances with plain stores. A
+ * cross-shard transfer is debited on the source shard and then credited by a message to the target
+ * shard. Until that credit lands, the amount shows up in {@link #getInFlightAmount()} rather than in
+ * any account.
+ *
+ * <p>{@link #runExclusively} parks the workers of the accounts' shards so the calling thread becomes
+ * their only writer; transfers it makes between those accounts apply directly.
+ */
+public class ShardedTransferStrategy implements TransferStrategy, AutoCloseable {
+    private final Shard[] shards;
+    private final LongAdder inFlightAmount = new LongAdder();
+    private final LongAdder crossShardTransfers = new LongAdder();
+    private volatile boolean closed;
+
+    public ShardedTransferStrategy(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Shard count must be greater than 0");
+        }
+
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public int shardFor(long id) {
+        return (int) Math.floorMod(id, (long) shards.length);
+    }
+
+    public int getQueueDepth(int shard) {
+        return shards[shard].queue.size();
+    }
+
+    public long getInFlightAmount() {
+        return inFlightAmount.sum();
+    }
+
+    public long getCrossShardTransfers() {
+        return crossShardTransfers.sum();
+    }
+
+    @Override
+    public boolean transfer(Account from, Account to, long amount) {
+        return transferAsync(from, to, amount).join();
+    }
+
+    /**
+     * Queues the transfer on the source shard. The future fails if a command throws or the strategy
+     * is closed before the transfer ran.
+     */
+    CompletableFuture<Boolean> transferAsync(Account from, Account to, long amount) {
+        if (closed) {
+            throw new IllegalStateException("Shards are closed");
+        }
+
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        Shard source = shards[shardFor(from.getId())];
+        Shard target = shards[shardFor(to.getId())];
+        Thread current = Thread.currentThread();
+
+        if (source.owner == current && target.owner == current) {
+            result.complete(source.transfer(from, to, amount));
+            return result;
+        }
+        if (source.owner == current || target.owner == current) {
+            throw new IllegalStateException("Transfer leaves the shards held by this thread");
+        }
+
+        if (source == target) {
+            source.submit(result, () -> {
+                if (closed) {
+                    throw new IllegalStateException("Shards are closed");
+                }
+                result.complete(source.transfer(from, to, amount));
+            });
+            return result;
+        }
+
+        crossShardTransfers.increment();
+        source.submit(result, () -> {
+            if (closed) {
+                throw new IllegalStateException("Shards are closed");
+            }
+            if (!source.debit(from, amount)) {
+                result.complete(false);
+                return;
+            }
+            inFlightAmount.add(amount);
+            target.submit(result, () -> {
+                target.credit(to, amount);
+                inFlightAmount.add(-amount);
+                result.complete(true);
+            });
+        });
+        return result;
+    }
+
+    @Override
+    public <T> T runExclusively(List<Account> accounts, Supplier<T> action) {
+        TreeMap<Integer, Shard> involved = new TreeMap<>();
+        for (Account account : accounts) {
+            int index = shardFor(account.getId());
+            involved.put(index, shards[index]);
+        }
+
+        Thread current = Thread.currentThread();
+        List<Shard> toHold = new ArrayList<>();
+        for (Shard shard : involved.values()) {
+            if (shard.owner != current) {
+                toHold.add(shard);
+            }
+        }
+        if (toHold.isEmpty()) {
+            return action.get();
+        }
+        if (toHold.size() < involved.size()) {
+            throw new IllegalStateException("Accounts span shards not held by this thread");
+        }
+        if (closed) {
+            throw new IllegalStateException("Shards are closed");
+        }
+
+        // Shards are taken in index order, so two threads holding overlapping shards cannot deadlock.
+        CountDownLatch released = new CountDownLatch(1);
+        try {
+            for (Shard shard : toHold) {
+                shard.hold(current, released).join();
+            }
+            return action.get();
+        } finally {
+            released.countDown();
+        }
+    }
+
+    @Override
+    public <T> T runSerialized(List<Account> accounts, Supplier<T> action) {
+        return runExclusively(accounts, action);
+    }
+
+    /**
+     * Rejects new transfers, lets every shard finish what is already queued, including the credits
+     * of cross-shard transfers already debited, and stops the workers. Commands queued too late to
+     * run have their futures failed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        // Once every shard has passed a barrier, no debit is still running, so every credit is queued.
+        CompletableFuture<?>[] barriers = new CompletableFuture<?>[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            CompletableFuture<Void> barrier = new CompletableFuture<>();
+            shards[i].submit(barrier, () -> barrier.complete(null));
+            barriers[i] = barrier;
+        }
+        CompletableFuture.allOf(barriers).join();
+
+        for (Shard shard : shards) {
+            shard.queue.add(Command.STOP);
+        }
+        boolean interrupted = false;
+        for (Shard shard : shards) {
+            while (true) {
+                try {
+                    shard.worker.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Command(CompletableFuture<?> result, Runnable action) {
+        static final Command STOP = new Command(null, null);
+
+        void run() {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Shard {
+        private final BlockingQueue<Command> queue = new LinkedBlockingQueue<>();
+        private final CommitClock.Writer writer = CommitClock.registerWriter();
+        private final Thread worker;
+        // The only thread allowed to write this shard's accounts: the worker, or a thread holding it.
+        private volatile Thread owner;
+        private volatile boolean terminated;
+
+        Shard(int index) {
+            worker = new Thread(this::run, "bank-shard-" + index);
+            worker.setDaemon(true);
+            owner = worker;
+            worker.start();
+        }
+
+        void submit(CompletableFuture<?> result, Runnable action) {
+            queue.add(new Command(result, action));
+            if (terminated) {
+                failQueued();
+            }
+        }
+
+        CompletableFuture<Void> hold(Thread holder, CountDownLatch released) {
+            CompletableFuture<Void> acquired = new CompletableFuture<>();
+            submit(acquired, () -> {
+                owner = holder;
+                acquired.complete(null);
+                boolean interrupted = false;
+                while (true) {
+                    try {
+                        released.await();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                owner = worker;
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            return acquired;
+        }
+
+        boolean transfer(Account from, Account to, long amount) {
+            if (from.isHot() || to.isHot() || !writer.begin()) {
+                return TransferDescriptor.transfer(from, to, amount);
+            }
+            try {
+                long stamp = CommitClock.current();
+                if (!from.debitOwned(amount, stamp)) {
+                    return false;
+                }
+                to.creditOwned(amount, stamp);
+                return true;
+            } finally {
+                writer.end();
+            }
+        }
+
+        boolean debit(Account account, long amount) {
+            if (account.isHot() || !writer.begin()) {
+                return account.withdraw(amount);
+            }
+            try {
+                return account.debitOwned(amount, CommitClock.current());
+            } finally {
+                writer.end();
+            }
+        }
+
+        void credit(Account account, long amount) {
+            if (account.isHot() || !writer.begin()) {
+                account.deposit(amount);
+                return;
+            }
+            try {
+                account.creditOwned(amount, CommitClock.current());
+            } finally {
+                writer.end();
+            }
+        }
+
+        private void run() {
+            while (true) {
+                Command command;
+                try {
+                    command = queue.take();
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (command == Command.STOP) {
+                    break;
+                }
+                command.run();
+            }
+            terminated = true;
+            CommitClock.unregisterWriter(writer);
+            failQueued();
+        }
+
+        private void failQueued() {
+            Command command;
+            while ((command = queue.poll()) != null) {
+                command.result.completeExceptionally(new IllegalStateException("Shards are closed"));
+            }
+        }
+    }
+}
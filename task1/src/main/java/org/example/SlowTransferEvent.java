@@ -0,0 +1,30 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("org.example.SlowTransfer")
+@Label("Slow Transfer")
+@Category("Bank")
+@Description("A transfer that took at least the bank's slow-transfer threshold")
+final class SlowTransferEvent extends jdk.jfr.Event {
+
+    @Label("From Account")
+    long fromAccount;
+
+    @Label("To Account")
+    long toAccount;
+
+    @Label("Amount")
+    long amount;
+
+    @Label("Result")
+    String result;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    long latency;
+}
@@ -0,0 +1,66 @@
+package org.example;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class StripedLockTransferStrategy implements TransferStrategy {
+    private final LockStripes stripes;
+
+    public StripedLockTransferStrategy(int stripeCount) {
+        this(new LockStripes(stripeCount));
+    }
+
+    public StripedLockTransferStrategy(LockStripes stripes) {
+        this.stripes = stripes;
+    }
+
+    public LockStripes getStripes() {
+        return stripes;
+    }
+
+    @Override
+    public boolean transfer(Account from, Account to, long amount) {
+        return transfer(from, to, amount, null);
+    }
+
+    @Override
+    public boolean transfer(Account from, Account to, long amount, BankMetrics metrics) {
+        int fromStripe = stripes.stripeFor(from.getId());
+        int toStripe = stripes.stripeFor(to.getId());
+
+        if (fromStripe == toStripe) {
+            stripes.recordPair(true);
+            return OrderedLocks.callLocked(new ReentrantLock[]{stripes.lockAt(fromStripe)},
+                    () -> TransferDescriptor.transfer(from, to, amount),
+                    metrics == null ? null : (lock, nanos) -> metrics.recordLockWait(from, nanos));
+        }
+
+        stripes.recordPair(false);
+        int first = Math.min(fromStripe, toStripe);
+        int second = Math.max(fromStripe, toStripe);
+        Account firstAccount = fromStripe == first ? from : to;
+        Account secondAccount = fromStripe == first ? to : from;
+
+        return OrderedLocks.callLocked(new ReentrantLock[]{stripes.lockAt(first), stripes.lockAt(second)},
+                () -> TransferDescriptor.transfer(from, to, amount),
+                metrics == null ? null
+                        : (lock, nanos) -> metrics.recordLockWait(lock == 0 ? firstAccount : secondAccount, nanos));
+    }
+
+    @Override
+    public <T> T runExclusively(List<Account> accounts, Supplier<T> action) {
+        ReentrantLock[] ordered = accounts.stream()
+                .mapToInt(account -> stripes.stripeFor(account.getId()))
+                .distinct()
+                .sorted()
+                .mapToObj(stripes::lockAt)
+                .toArray(ReentrantLock[]::new);
+        return OrderedLocks.callLocked(ordered, action);
+    }
+
+    @Override
+    public <T> T runSerialized(List<Account> accounts, Supplier<T> action) {
+        return runExclusively(accounts, action);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example;
+
+/**
+ * An extra balance cell of a hot account. Cells of one account are allocated together, so the
+ * trailing padding keeps their state words on separate cache lines.
+ */
+final class SubBalance extends BalanceCell {
+    private final long ownerId;
+    private final int index;
+
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+
+    SubBalance(long ownerId, int index) {
+        super(0);
+        this.ownerId = ownerId;
+        this.index = index;
+    }
+
+    @Override
+    long ownerId() {
+        return ownerId;
+    }
+
+    @Override
+    int cellIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,4 @@
+package org.example;
+
+public record Transfer(Account from, Account to, long amount) {
+}
@@ -0,0 +1,119 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A settlement batch netted per account. Items are checked in order against running balances, and
+ * the net result for every involved account is committed with a single multi-account descriptor.
+ */
+final class TransferBatch {
+    private final List<Transfer> transfers;
+    private final TransferResult[] results;
+    private final List<Account> accounts;
+    private final int[] fromIndex;
+    private final int[] toIndex;
+
+    TransferBatch(List<Transfer> transfers) {
+        this.transfers = transfers;
+        this.results = new TransferResult[transfers.size()];
+        this.fromIndex = new int[transfers.size()];
+        this.toIndex = new int[transfers.size()];
+
+        Map<Long, Account> involved = new HashMap<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            Transfer transfer = transfers.get(i);
+            results[i] = TransferResult.validate(transfer.from(), transfer.to(), transfer.amount());
+            if (results[i].isSuccess()) {
+                involved.putIfAbsent(transfer.from().getId(), transfer.from());
+                involved.putIfAbsent(transfer.to().getId(), transfer.to());
+            }
+        }
+
+        this.accounts = new ArrayList<>(involved.values());
+        accounts.sort(Comparator.comparingLong(Account::getId));
+
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < accounts.size(); i++) {
+            positions.put(accounts.get(i).getId(), i);
+        }
+        for (int i = 0; i < transfers.size(); i++) {
+            if (results[i].isSuccess()) {
+                fromIndex[i] = positions.get(transfers.get(i).from().getId());
+                toIndex[i] = positions.get(transfers.get(i).to().getId());
+            }
+        }
+    }
+
+    /**
+     * Distinct accounts touched by valid items, sorted by id.
+     */
+    List<Account> accounts() {
+        return accounts;
+    }
+
+    List<Transfer> transfers() {
+        return transfers;
+    }
+
+    TransferResult[] commit() {
+        if (accounts.isEmpty()) {
+            return results;
+        }
+
+        while (true) {
+            // Hot accounts contribute every live cell; the commit folds them into the primary cell.
+            BalanceCell[][] accountCells = new BalanceCell[accounts.size()][];
+            int cellCount = 0;
+            for (int i = 0; i < accountCells.length; i++) {
+                accountCells[i] = accounts.get(i).cells();
+                cellCount += accountCells[i].length;
+            }
+
+            BalanceCell[] cells = new BalanceCell[cellCount];
+            Balance[] expected = new Balance[cellCount];
+            int[] primaryIndex = new int[accountCells.length];
+            long[] updated = new long[accountCells.length];
+            boolean retiredMeanwhile = false;
+            for (int i = 0, c = 0; i < accountCells.length; i++) {
+                primaryIndex[i] = c;
+                for (BalanceCell cell : accountCells[i]) {
+                    cells[c] = cell;
+                    expected[c] = cell.readBalance();
+                    updated[i] += expected[c].value();
+                    retiredMeanwhile |= expected[c].isRetired();
+                    c++;
+                }
+            }
+            if (retiredMeanwhile) {
+                continue;
+            }
+
+            TransferResult[] attempt = results.clone();
+            for (int i = 0; i < attempt.length; i++) {
+                if (!attempt[i].isSuccess()) {
+                    continue;
+                }
+                long amount = transfers.get(i).amount();
+                if (updated[fromIndex[i]] < amount) {
+                    attempt[i] = TransferResult.INSUFFICIENT_FUNDS;
+                } else {
+                    updated[fromIndex[i]] -= amount;
+                    updated[toIndex[i]] += amount;
+                }
+            }
+
+            long[] cellUpdated = new long[cellCount];
+            for (int i = 0; i < updated.length; i++) {
+                cellUpdated[primaryIndex[i]] = updated[i];
+            }
+            if (new TransferDescriptor(cells, expected, cellUpdated).complete()) {
+                return attempt;
+            }
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.example;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of recent transfers by id so a retried transfer returns the original result
+ * instead of moving money twice. Ids hash onto independently locked segments. Each segment keeps its
+ * entries in insertion order, so expired entries and, once the segment is full, the oldest ones are
+ * dropped from its head. A retry that arrives while the original is still running waits for it. An id
+ * is bound to the accounts and amount it was first used with; reusing it for another transfer is
+ * rejected with {@link TransferResult#ID_REUSED}.
+ */
+public class TransferDedupCache {
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+    public static final int DEFAULT_SEGMENTS = 64;
+
+    private final Segment[] segments;
+    private final int maxEntriesPerSegment;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder mismatches = new LongAdder();
+
+    public TransferDedupCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    public TransferDedupCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, DEFAULT_SEGMENTS, System::nanoTime);
+    }
+
+    TransferDedupCache(int maxEntries, Duration ttl, int segmentCount, LongSupplier clock) {
+        if (maxEntries <= 0 || segmentCount <= 0) {
+            throw new IllegalArgumentException("Entry and segment counts must be greater than 0");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
+        this.segments = new Segment[Math.min(segmentCount, maxEntries)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+        this.maxEntriesPerSegment = Math.max(1, maxEntries / segments.length);
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the result recorded for {@code transferId}, or runs {@code transfer} and records its result.
+     * If the id is recorded for different accounts or a different amount, nothing runs and
+     * {@link TransferResult#ID_REUSED} is returned. A transfer that throws is forgotten, so it can be retried.
+     */
+    TransferResult execute(String transferId, long fromId, long toId, long amount, Supplier<TransferResult> transfer) {
+        Segment segment = segments[Math.floorMod(transferId.hashCode() * 0x9E3779B9, segments.length)];
+        CompletableFuture<TransferResult> pending = new CompletableFuture<>();
+        Entry recorded = segment.putIfAbsent(transferId, fromId, toId, amount, pending);
+        if (recorded != null) {
+            if (!recorded.matches(fromId, toId, amount)) {
+                mismatches.increment();
+                return TransferResult.ID_REUSED;
+            }
+            hits.increment();
+            return recorded.result().join();
+        }
+
+        misses.increment();
+        try {
+            TransferResult result = transfer.get();
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            segment.remove(transferId, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Entries dropped because their segment was full.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Entries dropped because they outlived the TTL.
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * Retries rejected because their id was recorded for a different transfer.
+     */
+    public long getMismatches() {
+        return mismatches.sum();
+    }
+
+    private record Entry(long fromId, long toId, long amount, CompletableFuture<TransferResult> result,
+                         long expiresAt) {
+
+        boolean matches(long otherFromId, long otherToId, long otherAmount) {
+            return fromId == otherFromId && toId == otherToId && amount == otherAmount;
+        }
+    }
+
+    private final class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+        Entry putIfAbsent(String transferId, long fromId, long toId, long amount,
+                          CompletableFuture<TransferResult> result) {
+            long now = clock.getAsLong();
+            lock.lock();
+            try {
+                expire(now);
+                Entry existing = entries.get(transferId);
+                if (existing != null) {
+                    return existing;
+                }
+                entries.put(transferId, new Entry(fromId, toId, amount, result, now + ttlNanos));
+                evictCompleted();
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(String transferId, CompletableFuture<TransferResult> result) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(transferId);
+                if (entry != null && entry.result() == result) {
+                    entries.remove(transferId);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // A transfer still running is never dropped, or a retry would miss it and run a second time.
+        // The segment may exceed its limit until enough of them finish.
+        private void evictCompleted() {
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (entries.size() > maxEntriesPerSegment && eldest.hasNext()) {
+                if (eldest.next().result().isDone()) {
+                    eldest.remove();
+                    evictions.increment();
+                }
+            }
+        }
+
+        private void expire(long now) {
+            Iterator<Entry> oldest = entries.values().iterator();
+            while (oldest.hasNext()) {
+                Entry entry = oldest.next();
+                if (entry.expiresAt() - now > 0) {
+                    return;
+                }
+                if (entry.result().isDone()) {
+                    oldest.remove();
+                    expirations.increment();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Multi-word compare-and-swap over balance cells. The descriptor is installed into every cell in
+ * {@link BalanceCell#precedes} order; any thread that runs into it helps it to completion, so a
+ * stalled transfer never blocks others.
+ */
+final class TransferDescriptor {
+    private static final long UNDECIDED = 0;
+    private static final long FAILED = -1;
+
+    private static final VarHandle DECISION;
+
+    static {
+        try {
+            DECISION = MethodHandles.lookup().findVarHandle(TransferDescriptor.class, "decision", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final BalanceCell[] cells;
+    private final Balance[] expected;
+    private final long[] updated;
+    // Demotion commits retire every sub-balance they fold into the primary cell.
+    private final boolean retiring;
+    // UNDECIDED, FAILED, or the commit stamp plus one. The stamp is taken only once every cell is
+    // held, so a snapshot sees either all of the transfer or none of it.
+    private volatile long decision = UNDECIDED;
+
+    TransferDescriptor(BalanceCell[] cells, Balance[] expected, long[] updated) {
+        this(cells, expected, updated, false);
+    }
+
+    TransferDescriptor(BalanceCell[] cells, Balance[] expected, long[] updated, boolean retiring) {
+        this.cells = cells;
+        this.expected = expected;
+        this.updated = updated;
+        this.retiring = retiring;
+    }
+
+    static TransferDescriptor of(BalanceCell from, Balance fromExpected, long fromUpdated,
+                                 BalanceCell to, Balance toExpected, long toUpdated) {
+        if (BalanceCell.precedes(from, to)) {
+            return new TransferDescriptor(new BalanceCell[]{from, to},
+                    new Balance[]{fromExpected, toExpected}, new long[]{fromUpdated, toUpdated});
+        }
+        return new TransferDescriptor(new BalanceCell[]{to, from},
+                new Balance[]{toExpected, fromExpected}, new long[]{toUpdated, fromUpdated});
+    }
+
+    static boolean transfer(Account from, Account to, long amount) {
+        return transfer(from, to, amount, null);
+    }
+
+    /**
+     * Optimistically moves {@code amount} between two accounts, retrying on interference. With a
+     * {@code policy}, both accounts record whether the commit had to be retried.
+     *
+     * @return {@code false} only if {@code from} had insufficient funds
+     */
+    static boolean transfer(Account from, Account to, long amount, HotAccountPolicy policy) {
+        boolean conflicted = false;
+        while (true) {
+            BalanceCell debit = from.debitCell(amount);
+            if (debit == null) {
+                if (!from.consolidate(amount)) {
+                    return false;
+                }
+                continue;
+            }
+            BalanceCell credit = to.creditCell();
+            Balance fromBalance = debit.readBalance();
+            Balance toBalance = credit.readBalance();
+            if (fromBalance.value() < amount || fromBalance.isRetired() || toBalance.isRetired()) {
+                continue;
+            }
+
+            TransferDescriptor descriptor = of(debit, fromBalance, fromBalance.value() - amount,
+                    credit, toBalance, toBalance.value() + amount);
+            if (descriptor.complete()) {
+                if (policy != null) {
+                    from.recordContention(conflicted, policy);
+                    to.recordContention(conflicted, policy);
+                }
+                return true;
+            }
+            conflicted = true;
+            Thread.onSpinWait();
+        }
+    }
+
+    boolean complete() {
+        if (decision == UNDECIDED) {
+            boolean acquired = true;
+            for (int i = 0; i < cells.length && acquired; i++) {
+                acquired = acquire(i);
+            }
+            DECISION.compareAndSet(this, UNDECIDED, acquired ? CommitClock.current() + 1 : FAILED);
+        }
+
+        long outcome = decision;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i].getState() == this) {
+                cells[i].compareAndSetState(this, release(i, outcome));
+            }
+        }
+        return outcome != FAILED;
+    }
+
+    private Balance release(int index, long outcome) {
+        if (outcome == FAILED) {
+            return expected[index];
+        }
+        if (retiring && cells[index] instanceof SubBalance) {
+            return expected[index].retire(outcome - 1);
+        }
+        return expected[index].next(updated[index], outcome - 1);
+    }
+
+    private boolean acquire(int index) {
+        BalanceCell cell = cells[index];
+        while (true) {
+            Object current = cell.getState();
+            if (current == this) {
+                return true;
+            }
+            if (current instanceof TransferDescriptor other) {
+                other.complete();
+                continue;
+            }
+            if (current != expected[index] || decision != UNDECIDED) {
+                return false;
+            }
+            if (cell.compareAndSetState(current, this)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal of successful transfers. Records are fixed-size and appended to rolling
+ * memory-mapped segment files. Each record's sequence marker is written last, so recovery stops
+ * at the first torn record. Periodic checkpoints fold the journal into a balance file and delete
+ * covered segments, which keeps recovery time bounded.
+ *
+ * <p>A journal is opened with {@link #open}, which also starts its background flusher. If forcing
+ * records to disk ever fails, the journal stops accepting records and every transfer still waiting
+ * for durability fails with the cause instead of waiting forever.
+ */
+public class TransferJournal implements AutoCloseable {
+    public static final int RECORD_SIZE = 32;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 16;
+    public static final long DEFAULT_CHECKPOINT_INTERVAL = 1 << 18;
+    public static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // Source id of records that open an account with its initial balance.
+    static final long OPENING = -1;
+    // Source id of records that fill a reserved sequence number whose transfer was not committed.
+    static final long SKIPPED = -2;
+
+    private static final Logger LOGGER = Logger.getLogger(TransferJournal.class.getName());
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint.bin";
+
+    private final Path directory;
+    private final DurabilityMode mode;
+    private final int recordsPerSegment;
+    private final long checkpointInterval;
+    private final ConcurrentHashMap<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+    private final AtomicLong nextSeq;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition flushRequested = waitLock.newCondition();
+    private final Condition durableAdvanced = waitLock.newCondition();
+    private final Thread flusher;
+    // Every record below durableSeq has been forced; every record below checkpointSeq is folded.
+    private volatile long durableSeq;
+    private volatile long checkpointSeq;
+    private volatile boolean closed;
+    // Set once close() has flushed every reserved record; waiters stop waiting after that.
+    private volatile boolean stopped;
+    // The first failure to force records to disk; once set, nothing more is accepted.
+    private volatile UncheckedIOException failure;
+
+    private TransferJournal(Path directory, DurabilityMode mode, int recordsPerSegment,
+                            long checkpointInterval) throws IOException {
+        if (recordsPerSegment <= 0 || checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Segment size and checkpoint interval must be greater than 0");
+        }
+
+        Files.createDirectories(directory);
+        int existing = existingRecordsPerSegment(directory);
+
+        this.directory = directory;
+        this.mode = mode;
+        this.recordsPerSegment = existing > 0 ? existing : recordsPerSegment;
+        this.checkpointInterval = checkpointInterval;
+
+        Checkpoint checkpoint = readCheckpoint(directory);
+        long end = replay(directory, this.recordsPerSegment, checkpoint.nextSeq(), null);
+        discardTail(directory, this.recordsPerSegment, end);
+        this.nextSeq = new AtomicLong(end);
+        this.durableSeq = end;
+        this.checkpointSeq = checkpoint.nextSeq();
+
+        this.flusher = new Thread(this::runFlusher, "transfer-journal-flusher");
+        flusher.setDaemon(true);
+    }
+
+    public static TransferJournal open(Path directory, DurabilityMode mode) throws IOException {
+        return open(directory, mode, DEFAULT_RECORDS_PER_SEGMENT, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, continuing after the last intact record, and starts
+     * its flusher.
+     */
+    public static TransferJournal open(Path directory, DurabilityMode mode, int recordsPerSegment,
+                                       long checkpointInterval) throws IOException {
+        TransferJournal journal = new TransferJournal(directory, mode, recordsPerSegment, checkpointInterval);
+        journal.flusher.start();
+        return journal;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    public long getDurableSeq() {
+        return durableSeq;
+    }
+
+    public long getNextSeq() {
+        return nextSeq.get();
+    }
+
+    public void recordOpening(Account account) {
+        append(OPENING, account.getId(), account.getBalance());
+    }
+
+    /**
+     * Writes a record and waits until it is as durable as the journal's mode promises.
+     */
+    public long append(long fromId, long toId, long amount) {
+        long seq = reserve(1);
+        write(seq, fromId, toId, amount);
+        awaitDurable(seq);
+        return seq;
+    }
+
+    /**
+     * Claims {@code count} consecutive sequence numbers and returns the first. It fails while nothing
+     * is committed yet, so a caller that reserves before committing never commits a transfer the
+     * journal then refuses. Every reserved number must be filled by {@link #write} or {@link #skip},
+     * even if the commit fails; close() waits for them.
+     */
+    long reserve(int count) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Journal failed to flush", failure);
+        }
+
+        long seq = nextSeq.getAndAdd(count);
+        if (closed) {
+            for (int i = 0; i < count; i++) {
+                skip(seq + i);
+            }
+            throw new IllegalStateException("Journal is closed");
+        }
+        return seq;
+    }
+
+    /**
+     * Fills a reserved sequence number. Callers that must log commits in commit order call this while
+     * the commit still excludes other commits on the same accounts, then {@link #awaitDurable} outside
+     * of that.
+     */
+    void write(long seq, long fromId, long toId, long amount) {
+        MappedByteBuffer buffer = segments.computeIfAbsent(seq / recordsPerSegment, this::mapSegment);
+        int offset = (int) (seq % recordsPerSegment) * RECORD_SIZE;
+
+        LONGS.set(buffer, offset + 8, fromId);
+        LONGS.set(buffer, offset + 16, toId);
+        LONGS.set(buffer, offset + 24, amount);
+        LONGS.setRelease(buffer, offset, seq + 1);
+    }
+
+    /**
+     * Fills a reserved sequence number with a record that recovery ignores.
+     */
+    void skip(long seq) {
+        write(seq, SKIPPED, SKIPPED, 0);
+    }
+
+    /**
+     * Forces every contiguously written record to disk and wakes the transfers waiting for it.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            long from = durableSeq;
+            long to = from;
+            long limit = nextSeq.get();
+            while (to < limit && isWritten(to)) {
+                to++;
+            }
+            if (to == from) {
+                return;
+            }
+
+            try {
+                for (long seq = from; seq < to; ) {
+                    long index = seq / recordsPerSegment;
+                    long segmentEnd = Math.min(to, (index + 1) * recordsPerSegment);
+                    int offset = (int) (seq % recordsPerSegment) * RECORD_SIZE;
+                    segments.get(index).force(offset, (int) (segmentEnd - seq) * RECORD_SIZE);
+                    seq = segmentEnd;
+                }
+            } catch (UncheckedIOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                wakeWaiters();
+                throw e;
+            }
+            durableSeq = to;
+        } finally {
+            flushLock.unlock();
+        }
+
+        wakeWaiters();
+    }
+
+    /**
+     * Folds every durable record into the checkpoint file and deletes the segments it fully covers.
+     */
+    public void checkpoint() {
+        checkpointLock.lock();
+        try {
+            flush();
+            long upTo = durableSeq;
+            if (upTo == checkpointSeq) {
+                return;
+            }
+
+            try {
+                Checkpoint previous = readCheckpoint(directory);
+                Map<Long, Long> balances = previous.balances();
+                for (long seq = previous.nextSeq(); seq < upTo; seq++) {
+                    MappedByteBuffer buffer = segments.computeIfAbsent(seq / recordsPerSegment, this::mapSegment);
+                    apply(buffer, (int) (seq % recordsPerSegment) * RECORD_SIZE, balances);
+                }
+                writeCheckpoint(directory, new Checkpoint(upTo, balances));
+                checkpointSeq = upTo;
+
+                for (long index : new ArrayList<>(segments.keySet())) {
+                    if ((index + 1) * recordsPerSegment <= upTo) {
+                        segments.remove(index);
+                        Files.deleteIfExists(segmentPath(directory, index * recordsPerSegment));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting records, waits for every reserved one to be written and flushes them, then
+     * stops the flusher. The flusher is never interrupted, so a checkpoint it is writing always
+     * finishes first.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flush();
+            while (durableSeq < nextSeq.get() && failure == null) {
+                // A transfer that reserved before close() is still committing.
+                Thread.yield();
+                flush();
+            }
+        } finally {
+            stopped = true;
+            waitLock.lock();
+            try {
+                flushRequested.signal();
+                durableAdvanced.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    flusher.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * The failure that stopped the journal, or {@code null} while it is healthy.
+     */
+    public UncheckedIOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Rebuilds account balances from the latest checkpoint plus every intact record after it.
+     */
+    public static Map<Long, Long> recoverBalances(Path directory) throws IOException {
+        Checkpoint checkpoint = readCheckpoint(directory);
+        Map<Long, Long> balances = checkpoint.balances();
+        replay(directory, existingRecordsPerSegment(directory), checkpoint.nextSeq(), balances);
+        return balances;
+    }
+
+    /**
+     * Recreates the journaled accounts with their original ids, ordered by id.
+     */
+    public static List<Account> recoverAccounts(Path directory) throws IOException {
+        List<Account> accounts = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : new TreeMap<>(recoverBalances(directory)).entrySet()) {
+            accounts.add(Account.restore(entry.getKey(), entry.getValue()));
+        }
+        return accounts;
+    }
+
+    void awaitDurable(long seq) {
+        switch (mode) {
+            case ASYNC -> {
+            }
+            case PER_TRANSFER -> {
+                while (durableSeq <= seq && !stopped && failure == null) {
+                    flush();
+                    if (durableSeq <= seq) {
+                        // An earlier record is still being written by another thread.
+                        Thread.yield();
+                    }
+                }
+            }
+            case BATCHED -> {
+                waitLock.lock();
+                try {
+                    flushRequested.signal();
+                    while (durableSeq <= seq && !stopped && failure == null) {
+                        durableAdvanced.awaitUninterruptibly();
+                    }
+                } finally {
+                    waitLock.unlock();
+                }
+            }
+        }
+        if (durableSeq <= seq && failure != null) {
+            throw new IllegalStateException("Journal failed to flush record " + seq, failure);
+        }
+    }
+
+    // Stopped only through the closed flag. A failed flush stops the journal, and waiters learn
+    // the cause; a failed checkpoint leaves every record in place and is retried on the next round.
+    private void runFlusher() {
+        while (!closed) {
+            waitLock.lock();
+            try {
+                if (!closed) {
+                    flushRequested.awaitNanos(FLUSH_INTERVAL_NANOS);
+                }
+            } catch (InterruptedException e) {
+                // Only close() stops the flusher; a stray interrupt just ends this wait early.
+            } finally {
+                waitLock.unlock();
+            }
+
+            try {
+                flush();
+            } catch (UncheckedIOException e) {
+                LOGGER.log(Level.SEVERE, "Journal flush failed, no further records are accepted", e);
+                return;
+            }
+            if (durableSeq - checkpointSeq >= checkpointInterval) {
+                try {
+                    checkpoint();
+                } catch (UncheckedIOException e) {
+                    LOGGER.log(Level.WARNING, "Journal checkpoint failed, retrying later", e);
+                }
+            }
+        }
+    }
+
+    private void wakeWaiters() {
+        waitLock.lock();
+        try {
+            durableAdvanced.signalAll();
+        } finally {
+            waitLock.unlock();
+        }
+    }
+
+    private boolean isWritten(long seq) {
+        MappedByteBuffer buffer = segments.get(seq / recordsPerSegment);
+        return buffer != null
+                && (long) LONGS.getAcquire(buffer, (int) (seq % recordsPerSegment) * RECORD_SIZE) == seq + 1;
+    }
+
+    private MappedByteBuffer mapSegment(long index) {
+        Path file = segmentPath(directory, index * recordsPerSegment);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * RECORD_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void apply(ByteBuffer buffer, int offset, Map<Long, Long> balances) {
+        long fromId = (long) LONGS.get(buffer, offset + 8);
+        long toId = (long) LONGS.get(buffer, offset + 16);
+        long amount = (long) LONGS.get(buffer, offset + 24);
+
+        if (fromId == SKIPPED) {
+            return;
+        }
+        if (fromId != OPENING) {
+            balances.merge(fromId, -amount, Long::sum);
+        }
+        balances.merge(toId, amount, Long::sum);
+    }
+
+    /**
+     * Walks intact records starting at {@code fromSeq}, applying them to {@code balances} when it is
+     * not null, and returns the sequence number after the last intact record.
+     */
+    private static long replay(Path directory, int recordsPerSegment, long fromSeq,
+                               Map<Long, Long> balances) throws IOException {
+        long seq = fromSeq;
+        while (recordsPerSegment > 0) {
+            long firstSeq = (seq / recordsPerSegment) * recordsPerSegment;
+            Path file = segmentPath(directory, firstSeq);
+            if (!Files.exists(file)) {
+                return seq;
+            }
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (; seq < firstSeq + recordsPerSegment; seq++) {
+                    int offset = (int) (seq - firstSeq) * RECORD_SIZE;
+                    if ((long) LONGS.get(buffer, offset) != seq + 1) {
+                        return seq;
+                    }
+                    if (balances != null) {
+                        apply(buffer, offset, balances);
+                    }
+                }
+            }
+        }
+        return seq;
+    }
+
+    /**
+     * Zeroes every record after {@code end} and deletes later segments. Records written after a torn
+     * one may still carry valid markers; left in place, they would be replayed again as soon as the
+     * reopened journal rewrote the torn sequence number.
+     */
+    private static void discardTail(Path directory, int recordsPerSegment, long end) throws IOException {
+        if (recordsPerSegment <= 0) {
+            return;
+        }
+        long firstSeq = (end / recordsPerSegment) * recordsPerSegment;
+        Path file = segmentPath(directory, firstSeq);
+        if (Files.exists(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                long position = (end - firstSeq) * RECORD_SIZE;
+                ByteBuffer zeros = ByteBuffer.allocate((int) (channel.size() - position));
+                while (zeros.hasRemaining()) {
+                    position += channel.write(zeros, position);
+                }
+                channel.force(false);
+            }
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path later : files.filter(path -> isSegment(path) && segmentFirstSeq(path) > firstSeq).toList()) {
+                Files.delete(later);
+            }
+        }
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentFirstSeq(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static int existingRecordsPerSegment(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .findAny()
+                    .map(file -> {
+                        try {
+                            return (int) (Files.size(file) / RECORD_SIZE);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .orElse(0);
+        }
+    }
+
+    private static Path segmentPath(Path directory, long firstSeq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+    }
+
+    private static Checkpoint readCheckpoint(Path directory) throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        Map<Long, Long> balances = new HashMap<>();
+        if (!Files.exists(file)) {
+            return new Checkpoint(0, balances);
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        long nextSeq = buffer.getLong();
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            balances.put(buffer.getLong(), buffer.getLong());
+        }
+        return new Checkpoint(nextSeq, balances);
+    }
+
+    private static void writeCheckpoint(Path directory, Checkpoint checkpoint) throws IOException {
+        Map<Long, Long> balances = checkpoint.balances();
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES + balances.size() * 2 * Long.BYTES);
+        buffer.putLong(checkpoint.nextSeq());
+        buffer.putInt(balances.size());
+        for (Map.Entry<Long, Long> entry : balances.entrySet()) {
+            buffer.putLong(entry.getKey());
+            buffer.putLong(entry.getValue());
+        }
+        buffer.flip();
+
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private record Checkpoint(long nextSeq, Map<Long, Long> balances) {
+    }
+}
@@ -0,0 +1,26 @@
+package org.example;
+
+public enum TransferResult {
+    SUCCESS,
+    INSUFFICIENT_FUNDS,
+    INVALID_AMOUNT,
+    SAME_ACCOUNT,
+    OVERLOADED,
+    ID_REUSED,
+    // Committed, but the journal failed before the record became durable; it may be lost on recovery.
+    NOT_DURABLE;
+
+    public boolean isSuccess() {
+        return this == SUCCESS;
+    }
+
+    static TransferResult validate(Account from, Account to, long amount) {
+        return validate(from.getId(), to.getId(), amount);
+    }
+
+    static TransferResult validate(long fromId, long toId, long amount) {
+        if (amount <= 0) return INVALID_AMOUNT;
+        if (fromId == toId) return SAME_ACCOUNT;
+        return SUCCESS;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example;
+
+public final class TransferStrategies {
+
+    private TransferStrategies() {
+    }
+
+    public static final int DEFAULT_STRIPES = 64;
+    public static final int DEFAULT_SHARDS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Resolves names such as {@code locking}, {@code lock-free}, {@code hot:8} or {@code striped:256}; the optional
+     * part after the colon is the strategy's size parameter.
+     */
+    public static TransferStrategy byName(String name) {
+        int separator = name.indexOf(':');
+        String base = separator < 0 ? name : name.substring(0, separator);
+        String parameter = separator < 0 ? null : name.substring(separator + 1);
+
+        return switch (base) {
+            case "locking" -> new LockingTransferStrategy();
+            case "lock-free" -> new LockFreeTransferStrategy();
+            case "hot" -> new LockFreeTransferStrategy(
+                    HotAccountPolicy.withCells(intParameter(parameter, HotAccountPolicy.DEFAULT_CELLS)));
+            case "striped" -> new StripedLockTransferStrategy(intParameter(parameter, DEFAULT_STRIPES));
+            case "sharded" -> new ShardedTransferStrategy(intParameter(parameter, DEFAULT_SHARDS));
+            default -> throw new IllegalArgumentException("Unknown transfer strategy: " + name);
+        };
+    }
+
+    private static int intParameter(String parameter, int defaultValue) {
+        return parameter == null ? defaultValue : Integer.parseInt(parameter);
+    }
+}
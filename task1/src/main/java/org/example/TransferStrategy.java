@@ -0,0 +1,46 @@
+package org.example;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public interface TransferStrategy {
+
+    /**
+     * Moves {@code amount} from {@code from} to {@code to}. Callers guarantee a positive amount
+     * and two distinct accounts.
+     *
+     * @return {@code true} if the money was moved, {@code false} if {@code from} had insufficient funds
+     */
+    boolean transfer(Account from, Account to, long amount);
+
+    /**
+     * Same as {@link #transfer(Account, Account, long)}, reporting lock waits to {@code metrics} when it
+     * is not {@code null}. Strategies that never wait for a lock just ignore it.
+     */
+    default boolean transfer(Account from, Account to, long amount, BankMetrics metrics) {
+        return transfer(from, to, amount);
+    }
+
+    /**
+     * Runs {@code action} while holding whatever this strategy locks for every account in
+     * {@code accounts}, which are distinct and sorted by id. Strategies without locks just run it.
+     */
+    default <T> T runExclusively(List<Account> accounts, Supplier<T> action) {
+        return action.get();
+    }
+
+    /**
+     * Runs {@code action} so that no other serialized action on any of {@code accounts}, which are
+     * distinct and sorted by id, overlaps it. A journaled bank commits and logs each transfer in one
+     * such action, so the journal lists commits that share an account in commit order. By default
+     * it holds the accounts' own locks; lock-based strategies reuse {@link #runExclusively}.
+     */
+    default <T> T runSerialized(List<Account> accounts, Supplier<T> action) {
+        ReentrantLock[] ordered = new ReentrantLock[accounts.size()];
+        for (int i = 0; i < ordered.length; i++) {
+            ordered[i] = accounts.get(i).getLock();
+        }
+        return OrderedLocks.callLocked(ordered, action);
+    }
+}
@@ -0,0 +1,156 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountStoreTest {
+
+    @Test
+    void testConstructorInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new AccountStore(0));
+    }
+
+    @Test
+    void testCreateAssignsDenseIds() {
+        AccountStore store = new AccountStore(3);
+
+        long first = store.create(100);
+        long second = store.create(200);
+
+        assertEquals(first + 1, second);
+        assertEquals(100, store.getBalance(first));
+        assertEquals(200, store.getBalance(second));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    void testIdsDoNotCollideWithAccounts() {
+        AccountStore store = new AccountStore(10);
+        long storeId = store.create(0);
+        Account account = new Account(0);
+
+        assertFalse(store.contains(account.getId()));
+        assertTrue(store.contains(storeId));
+    }
+
+    @Test
+    void testCreateBeyondCapacity() {
+        AccountStore store = new AccountStore(1);
+        store.create(100);
+
+        assertThrows(IllegalStateException.class, () -> store.create(100));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testUnknownIdRejected() {
+        AccountStore store = new AccountStore(2);
+        long id = store.create(100);
+
+        assertThrows(IllegalArgumentException.class, () -> store.getBalance(id + 1));
+    }
+
+    @Test
+    void testWithdrawAndDeposit() {
+        AccountStore store = new AccountStore(1);
+        long id = store.create(100);
+
+        assertTrue(store.withdraw(id, 40));
+        assertFalse(store.withdraw(id, 100));
+        store.deposit(id, 15);
+        store.deposit(id, -15);
+
+        assertEquals(75, store.getBalance(id));
+    }
+
+    @Test
+    void testBankTransferById() {
+        Bank bank = new Bank();
+        AccountStore store = new AccountStore(2);
+        long from = store.create(1000);
+        long to = store.create(500);
+
+        bank.transfer(store, from, to, 200);
+        bank.transfer(store, from, to, 5000);
+        bank.transfer(store, from, from, 100);
+
+        assertEquals(800, store.getBalance(from));
+        assertEquals(700, store.getBalance(to));
+    }
+
+    @Test
+    void testConcurrentRandomTransfers() throws InterruptedException {
+        Bank bank = new Bank();
+        int numAccounts = 50;
+        int numThreads = 20;
+        int numTransfers = 2000;
+
+        AccountStore store = new AccountStore(numAccounts, 4);
+        long[] ids = new long[numAccounts];
+        for (int i = 0; i < numAccounts; i++) {
+            ids[i] = store.create(1000);
+        }
+
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int i = 0; i < numThreads; i++) {
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int j = 0; j < numTransfers; j++) {
+                            bank.transfer(store, ids[rnd.nextInt(numAccounts)], ids[rnd.nextInt(numAccounts)],
+                                    rnd.nextLong(1, 100));
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            boolean finished = latch.await(10, TimeUnit.SECONDS);
+            assertTrue(finished, "Test timed out - possible deadlock.");
+        }
+
+        assertEquals(numAccounts * 1000L, store.totalBalance());
+    }
+
+    @Test
+    void testDepositsIntoJustCreatedAccountsAreKept() throws Exception {
+        int numCreators = 2;
+        int perCreator = 5_000;
+        AccountStore store = new AccountStore(numCreators * perCreator);
+        long firstId = store.create(0);
+        long[] deposited = {0};
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numCreators + 1)) {
+            CountDownLatch created = new CountDownLatch(numCreators);
+            for (int i = 0; i < numCreators; i++) {
+                service.submit(() -> {
+                    for (int j = 0; j < perCreator && store.size() < store.capacity(); j++) {
+                        try {
+                            store.create(100);
+                        } catch (IllegalStateException e) {
+                            break;
+                        }
+                    }
+                    created.countDown();
+                });
+            }
+            // Credits the newest visible account, which is the one most likely still being opened.
+            service.submit(() -> {
+                while (created.getCount() > 0) {
+                    store.deposit(firstId + store.size() - 1, 1);
+                    deposited[0]++;
+                }
+            }).get();
+        }
+
+        assertEquals((store.size() - 1) * 100L + deposited[0], store.totalBalance());
+    }
+}
@@ -0,0 +1,129 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankAsyncTest {
+
+    @Test
+    void testAsyncResults() {
+        try (Bank bank = Bank.builder().build()) {
+            Account from = new Account(100);
+            Account to = new Account(0);
+
+            assertEquals(TransferResult.SUCCESS, bank.transferAsync(from, to, 60).join());
+            assertEquals(TransferResult.INSUFFICIENT_FUNDS, bank.transferAsync(from, to, 60).join());
+            assertEquals(TransferResult.SAME_ACCOUNT, bank.transferAsync(from, from, 10).join());
+            assertEquals(TransferResult.INVALID_AMOUNT, bank.transferAsync(from, to, -5).join());
+            assertEquals(40, from.getBalance());
+            assertEquals(60, to.getBalance());
+        }
+    }
+
+    @Test
+    void testRejectsFastAtInFlightLimit() {
+        List<Runnable> parked = new ArrayList<>();
+        Bank bank = Bank.builder().asyncExecutor(parked::add).maxInFlight(2).build();
+        Account from = new Account(100);
+        Account to = new Account(0);
+
+        CompletableFuture<TransferResult> first = bank.transferAsync(from, to, 10);
+        CompletableFuture<TransferResult> second = bank.transferAsync(from, to, 10);
+        CompletableFuture<TransferResult> third = bank.transferAsync(from, to, 10);
+
+        assertTrue(third.isDone());
+        assertEquals(TransferResult.OVERLOADED, third.join());
+        assertEquals(0, bank.getAvailableInFlight());
+
+        parked.forEach(Runnable::run);
+
+        assertEquals(TransferResult.SUCCESS, first.join());
+        assertEquals(TransferResult.SUCCESS, second.join());
+        assertEquals(2, bank.getAvailableInFlight());
+        assertEquals(80, from.getBalance());
+    }
+
+    @Test
+    void testWaitsForSlotWithinMaxWait() throws InterruptedException {
+        List<Runnable> parked = new ArrayList<>();
+        Bank bank = Bank.builder().asyncExecutor(parked::add).maxInFlight(1).build();
+        Account from = new Account(100);
+        Account to = new Account(0);
+        bank.transferAsync(from, to, 10);
+
+        assertEquals(TransferResult.OVERLOADED, bank.transferAsync(from, to, 10, Duration.ofMillis(20)).join());
+
+        Thread releaser = Thread.ofPlatform().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            parked.remove(0).run();
+        });
+        CompletableFuture<TransferResult> waited = bank.transferAsync(from, to, 10, Duration.ofSeconds(5));
+        releaser.join();
+        parked.forEach(Runnable::run);
+
+        assertEquals(TransferResult.SUCCESS, waited.join());
+        assertEquals(80, from.getBalance());
+    }
+
+    @Test
+    void testRejectedExecutionReleasesSlot() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        Bank bank = Bank.builder().asyncExecutor(executor).maxInFlight(1).build();
+
+        assertEquals(TransferResult.OVERLOADED, bank.transferAsync(new Account(10), new Account(0), 5).join());
+        assertEquals(1, bank.getAvailableInFlight());
+    }
+
+    @Test
+    void testConcurrentAsyncTransfersPreserveTotal() {
+        Account[] accounts = new Account[10];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = new Account(1000);
+        }
+        List<CompletableFuture<TransferResult>> futures = new ArrayList<>();
+
+        try (Bank bank = Bank.builder().strategy(new LockFreeTransferStrategy()).maxInFlight(64).build()) {
+            for (int i = 0; i < 5_000; i++) {
+                futures.add(bank.transferAsync(accounts[i % 10], accounts[(i * 7 + 3) % 10], 1 + i % 50,
+                        Duration.ofSeconds(10)));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).orTimeout(20, TimeUnit.SECONDS).join();
+        }
+
+        assertTrue(futures.stream().noneMatch(future -> future.join() == TransferResult.OVERLOADED));
+        long total = 0;
+        for (Account account : accounts) {
+            total += account.getBalance();
+        }
+        assertEquals(10_000, total);
+    }
+
+    @Test
+    void testClosedBankRejectsAsyncTransfers() {
+        Bank bank = new Bank();
+        Account from = new Account(100);
+        Account to = new Account(0);
+        bank.close();
+
+        assertEquals(TransferResult.OVERLOADED, bank.transferAsync(from, to, 10).join());
+        assertEquals(Bank.DEFAULT_MAX_IN_FLIGHT, bank.getAvailableInFlight());
+        assertEquals(TransferResult.SUCCESS, bank.transfer(from, to, 10));
+    }
+
+    @Test
+    void testInvalidInFlightLimit() {
+        assertThrows(IllegalArgumentException.class, () -> Bank.builder().maxInFlight(0).build());
+    }
+}
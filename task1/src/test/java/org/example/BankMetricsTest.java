@@ -0,0 +1,126 @@
+package org.example;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankMetricsTest {
+
+    @Test
+    void testCountsTransfersByOutcome() {
+        BankMetrics metrics = new BankMetrics();
+        Bank bank = new Bank(new LockingTransferStrategy(), null, metrics);
+        Account from = new Account(100);
+        Account to = new Account(0);
+
+        bank.transfer(from, to, 60);
+        bank.transfer(from, to, 60);
+        bank.transfer(from, from, 10);
+
+        assertEquals(3, metrics.getTransfersAttempted());
+        assertEquals(1, metrics.getTransfersSucceeded());
+        assertEquals(2, metrics.getTransfersRejected());
+        assertEquals(1, metrics.getInsufficientFunds());
+        assertEquals(3, metrics.getLatencies().getCount());
+        assertTrue(metrics.getLatencyMaxNanos() > 0);
+    }
+
+    @Test
+    void testRecordsLockWaitOnContendedAccount() throws InterruptedException {
+        BankMetrics metrics = new BankMetrics();
+        Bank bank = new Bank(new LockingTransferStrategy(), null, metrics);
+        Account hot = new Account(100);
+        Account other = new Account(100);
+
+        hot.getLock().lock();
+        Thread transfer = Thread.ofPlatform().start(() -> bank.transfer(other, hot, 10));
+        try {
+            Thread.sleep(50);
+        } finally {
+            hot.getLock().unlock();
+        }
+        transfer.join();
+
+        assertTrue(metrics.getLockWaitNanos() >= 40_000_000L);
+        List<AccountContention> hottest = metrics.hottestAccounts(5);
+        assertEquals(1, hottest.size());
+        assertEquals(hot.getId(), hottest.get(0).accountId());
+        assertEquals(1, hottest.get(0).waits());
+        assertEquals(110, hot.getBalance());
+    }
+
+    @Test
+    void testUncontendedTransfersRecordNoLockWait() {
+        BankMetrics metrics = new BankMetrics();
+        Bank bank = new Bank(new StripedLockTransferStrategy(4), null, metrics);
+
+        bank.transfer(new Account(100), new Account(0), 10);
+
+        assertEquals(0, metrics.getLockWaitNanos());
+        assertTrue(metrics.hottestAccounts(5).isEmpty());
+    }
+
+    @Test
+    void testSlowTransfersEmitJfrEvents(@TempDir Path directory) throws Exception {
+        BankMetrics metrics = new BankMetrics(0);
+        Bank bank = new Bank(new LockFreeTransferStrategy(), null, metrics);
+        Account from = new Account(100);
+        Account to = new Account(0);
+        Path dump = directory.resolve("transfers.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("org.example.SlowTransfer");
+            recording.start();
+            bank.transfer(from, to, 25);
+            bank.transfer(from, to, 500);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals("org.example.SlowTransfer"))
+                .toList();
+        assertEquals(2, events.size());
+        assertEquals(from.getId(), events.get(0).getLong("fromAccount"));
+        assertEquals("SUCCESS", events.get(0).getString("result"));
+        assertEquals("INSUFFICIENT_FUNDS", events.get(1).getString("result"));
+        assertEquals(2, metrics.getSlowTransfers());
+    }
+
+    @Test
+    void testThresholdFiltersFastTransfers() {
+        BankMetrics metrics = new BankMetrics(Long.MAX_VALUE);
+        Bank bank = new Bank(new LockFreeTransferStrategy(), null, metrics);
+
+        bank.transfer(new Account(100), new Account(0), 10);
+
+        assertEquals(0, metrics.getSlowTransfers());
+    }
+
+    @Test
+    void testExposedOverJmx() throws Exception {
+        BankMetrics metrics = new BankMetrics();
+        Bank bank = new Bank(new LockingTransferStrategy(), null, metrics);
+        bank.transfer(new Account(100), new Account(0), 10);
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("bank-metrics-test");
+        try {
+            assertEquals(1L, server.getAttribute(name, "TransfersAttempted"));
+            assertEquals(1L, server.getAttribute(name, "TransfersSucceeded"));
+            server.setAttribute(name, new Attribute("SlowTransferThresholdNanos", 5L));
+            assertEquals(5, metrics.getSlowTransferThresholdNanos());
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BankSnapshotTest {
+
+    @Test
+    void testSnapshotOfIdleAccounts() {
+        Bank bank = new Bank();
+        List<Account> accounts = List.of(new Account(100), new Account(250));
+
+        BankSnapshot snapshot = bank.snapshot(accounts);
+
+        assertEquals(2, snapshot.size());
+        assertEquals(accounts.get(0).getId(), snapshot.idAt(0));
+        assertEquals(100, snapshot.balanceAt(0));
+        assertEquals(250, snapshot.balanceAt(1));
+        assertEquals(350, snapshot.total());
+    }
+
+    @Test
+    void testSnapshotReflectsCompletedTransfers() {
+        Bank bank = new Bank();
+        Account from = new Account(1000);
+        Account to = new Account(0);
+
+        bank.transfer(from, to, 300);
+        BankSnapshot snapshot = bank.snapshot(List.of(from, to));
+
+        assertEquals(700, snapshot.balanceAt(0));
+        assertEquals(300, snapshot.balanceAt(1));
+    }
+
+    @Test
+    void testLargeLedgerSumsInParallel() {
+        Bank bank = new Bank();
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < BankSnapshot.PARALLEL_THRESHOLD * 3; i++) {
+            accounts.add(new Account(i % 7));
+        }
+
+        long expected = 0;
+        for (Account account : accounts) {
+            expected += account.getBalance();
+        }
+
+        assertEquals(expected, bank.snapshot(accounts).total());
+    }
+
+    @Test
+    void testLockingSnapshotConsistentDuringTransfers() throws InterruptedException {
+        assertSnapshotsConsistent(new Bank(new LockingTransferStrategy()));
+    }
+
+    @Test
+    void testLockFreeSnapshotConsistentDuringTransfers() throws InterruptedException {
+        assertSnapshotsConsistent(new Bank(new LockFreeTransferStrategy()));
+    }
+
+    @Test
+    void testStripedSnapshotConsistentDuringTransfers() throws InterruptedException {
+        assertSnapshotsConsistent(new Bank(new StripedLockTransferStrategy(4)));
+    }
+
+    private static void assertSnapshotsConsistent(Bank bank) throws InterruptedException {
+        int numAccounts = 2000;
+        int numThreads = 8;
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < numAccounts; i++) {
+            accounts.add(new Account(1000));
+        }
+        long initialTotal = numAccounts * 1000L;
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int i = 0; i < numThreads; i++) {
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        while (running.get()) {
+                            bank.transfer(accounts.get(rnd.nextInt(numAccounts)),
+                                    accounts.get(rnd.nextInt(numAccounts)), rnd.nextLong(1, 200));
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            try {
+                for (int i = 0; i < 200; i++) {
+                    BankSnapshot snapshot = bank.snapshot(accounts);
+                    assertEquals(initialTotal, snapshot.total(), "Snapshot " + i + " was not a consistent cut");
+                    for (int j = 0; j < snapshot.size(); j++) {
+                        assertTrue(snapshot.balanceAt(j) >= 0);
+                    }
+                }
+            } finally {
+                running.set(false);
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -69,6 +69,17 @@ class BankTest {
         assertEquals(500, to.getBalance());
     }
 
+    @Test
+    void testTransferReportsResult() {
+        Account from = new Account(100);
+        Account to = new Account(0);
+
+        assertEquals(TransferResult.SUCCESS, bank.transfer(from, to, 60));
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, bank.transfer(from, to, 60));
+        assertEquals(TransferResult.INVALID_AMOUNT, bank.transfer(from, to, 0));
+        assertEquals(TransferResult.SAME_ACCOUNT, bank.transfer(from, from, 10));
+    }
+
     @Test
     void testDeadlockSafety() throws InterruptedException {
         final int ITERATIONS = 10_000;
@@ -0,0 +1,206 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotAccountTest {
+
+    @Test
+    void testDepositsSpreadAcrossSubBalances() {
+        Account account = new Account(100);
+        account.promote(4);
+
+        for (int i = 0; i < 100; i++) {
+            account.deposit(10);
+        }
+
+        assertTrue(account.isHot());
+        assertEquals(1100, account.getBalance());
+        assertEquals(100, account.readBalance().value());
+        assertEquals(5, account.cells().length);
+    }
+
+    @Test
+    void testWithdrawConsolidatesWhenNoCellCoversAmount() {
+        Account account = new Account(0);
+        account.promote(4);
+        for (int i = 0; i < 20; i++) {
+            account.deposit(5);
+        }
+
+        assertTrue(account.withdraw(95));
+        assertEquals(5, account.getBalance());
+        assertFalse(account.withdraw(10));
+        assertEquals(5, account.getBalance());
+    }
+
+    @Test
+    void testTransferOutOfHotAccount() {
+        Bank bank = new Bank(new LockFreeTransferStrategy());
+        Account merchant = new Account(0);
+        Account customer = new Account(0);
+        merchant.promote(8);
+        for (int i = 0; i < 50; i++) {
+            merchant.deposit(2);
+        }
+
+        bank.transfer(merchant, customer, 100);
+
+        assertEquals(0, merchant.getBalance());
+        assertEquals(100, customer.getBalance());
+    }
+
+    @Test
+    void testDemoteFoldsAndReclaimsSubBalances() {
+        Account account = new Account(50);
+        account.promote(4);
+        for (int i = 0; i < 10; i++) {
+            account.deposit(5);
+        }
+
+        account.demote();
+
+        assertFalse(account.isHot());
+        assertEquals(1, account.cells().length);
+        assertEquals(100, account.readBalance().value());
+        assertEquals(100, account.getBalance());
+    }
+
+    @Test
+    void testBatchFoldsHotAccount() {
+        Bank bank = new Bank(new LockFreeTransferStrategy());
+        Account hot = new Account(0);
+        Account other = new Account(0);
+        hot.promote(4);
+        for (int i = 0; i < 10; i++) {
+            hot.deposit(10);
+        }
+
+        BatchResult result = bank.transferBatch(List.of(new Transfer(hot, other, 100), new Transfer(hot, other, 1)));
+
+        assertTrue(result.get(0).isSuccess());
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, result.get(1));
+        assertEquals(0, hot.getBalance());
+        assertEquals(100, other.getBalance());
+    }
+
+    @Test
+    void testPolicyPromotesContendedAccount() {
+        Bank bank = new Bank(new LockFreeTransferStrategy(new HotAccountPolicy(4, 1, 0.0, 0.0)));
+        Account from = new Account(100);
+        Account to = new Account(0);
+
+        bank.transfer(from, to, 10);
+
+        assertTrue(from.isHot());
+        assertTrue(to.isHot());
+        assertEquals(90, from.getBalance());
+        assertEquals(10, to.getBalance());
+    }
+
+    @Test
+    void testInvalidPolicy() {
+        assertThrows(IllegalArgumentException.class, () -> new HotAccountPolicy(0, 10, 0.1, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new HotAccountPolicy(4, 10, 0.01, 0.1));
+    }
+
+    @Test
+    void testSnapshotsConsistentWhileAccountsChangeMode() throws InterruptedException {
+        Bank bank = new Bank(new LockFreeTransferStrategy());
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            accounts.add(new Account(1000));
+        }
+        Account hot = accounts.get(0);
+        long expectedTotal = 200 * 1000L;
+        int numThreads = 4;
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads + 1)) {
+            for (int i = 0; i < numThreads; i++) {
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int j = 0; j < 5000; j++) {
+                            Account other = accounts.get(rnd.nextInt(1, accounts.size()));
+                            if (rnd.nextBoolean()) {
+                                bank.transfer(hot, other, rnd.nextLong(1, 300));
+                            } else {
+                                bank.transfer(other, hot, rnd.nextLong(1, 300));
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            service.submit(() -> {
+                while (running.get()) {
+                    hot.promote(4);
+                    Thread.yield();
+                    hot.demote();
+                }
+            });
+
+            for (int i = 0; i < 50; i++) {
+                assertEquals(expectedTotal, bank.snapshot(accounts).total());
+            }
+            assertTrue(latch.await(20, TimeUnit.SECONDS), "Test timed out - possible livelock.");
+            running.set(false);
+        }
+
+        long finalTotal = 0;
+        for (Account account : accounts) {
+            assertTrue(account.getBalance() >= 0);
+            finalTotal += account.getBalance();
+        }
+        assertEquals(expectedTotal, finalTotal);
+    }
+
+    @Test
+    void testBalanceStaysExactWhileValueMovesBetweenCells() throws InterruptedException {
+        Account account = new Account(1000);
+        account.promote(4);
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(3)) {
+            for (int t = 0; t < 2; t++) {
+                service.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        // Moves value between two cells of the same account; the total never changes.
+                        BalanceCell[] cells = account.cells();
+                        int from = rnd.nextInt(cells.length);
+                        int to = rnd.nextInt(cells.length);
+                        Balance fromBalance = cells[from].readBalance();
+                        Balance toBalance = cells[to].readBalance();
+                        if (from == to || fromBalance.value() == 0
+                                || fromBalance.isRetired() || toBalance.isRetired()) {
+                            continue;
+                        }
+                        long amount = rnd.nextLong(1, fromBalance.value() + 1);
+                        TransferDescriptor.of(cells[from], fromBalance, fromBalance.value() - amount,
+                                cells[to], toBalance, toBalance.value() + amount).complete();
+                    }
+                });
+            }
+
+            try {
+                for (int i = 0; i < 200_000; i++) {
+                    assertEquals(1000, account.getBalance());
+                }
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testOpenAllReservesContiguousIds() {
+        List<Account> accounts = Account.openAll(new long[]{10, 20, 30});
+        Account next = new Account(0);
+
+        assertEquals(3, accounts.size());
+        assertEquals(accounts.get(0).getId() + 1, accounts.get(1).getId());
+        assertEquals(accounts.get(0).getId() + 2, accounts.get(2).getId());
+        assertEquals(20, accounts.get(1).getBalance());
+        assertTrue(next.getId() > accounts.get(2).getId());
+    }
+
+    @Test
+    void testBinaryRoundTrip() throws IOException {
+        assertRoundTrip(LedgerFormat.BINARY, 100_000);
+    }
+
+    @Test
+    void testCsvRoundTrip() throws IOException {
+        assertRoundTrip(LedgerFormat.CSV, 100_000);
+    }
+
+    @Test
+    void testEmptyLedgerRoundTrip() throws IOException {
+        assertRoundTrip(LedgerFormat.BINARY, 0);
+        assertRoundTrip(LedgerFormat.CSV, 0);
+    }
+
+    @Test
+    void testCsvToleratesCrlfBlankLinesAndMissingTrailingNewline() throws IOException {
+        Path file = directory.resolve("ledger.csv");
+        Files.writeString(file, "id,balance\r\n5000001,-42\r\n\r\n5000002,1000", StandardCharsets.US_ASCII);
+
+        List<Account> accounts = LedgerFile.read(file, LedgerFormat.CSV);
+
+        assertEquals(2, accounts.size());
+        assertEquals(5000001, accounts.get(0).getId());
+        assertEquals(-42, accounts.get(0).getBalance());
+        assertEquals(1000, accounts.get(1).getBalance());
+        assertTrue(new Account(0).getId() > 5000002);
+    }
+
+    @Test
+    void testMalformedCsvRejected() throws IOException {
+        Path file = directory.resolve("broken.csv");
+        Files.writeString(file, "1,100\n2;200\n", StandardCharsets.US_ASCII);
+
+        assertThrows(IllegalArgumentException.class, () -> LedgerFile.read(file, LedgerFormat.CSV));
+
+        Files.writeString(file, "1,10x\n", StandardCharsets.US_ASCII);
+        assertThrows(IllegalArgumentException.class, () -> LedgerFile.read(file, LedgerFormat.CSV));
+    }
+
+    @Test
+    void testCsvLineThatIsNotARecordReportsItsLineNumber() throws IOException {
+        Path file = directory.resolve("broken.csv");
+        Files.writeString(file, "id,balance\n1,100\n\n x,200\n2,300\n", StandardCharsets.US_ASCII);
+
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class,
+                () -> LedgerFile.read(file, LedgerFormat.CSV));
+        assertEquals("Malformed ledger line on line 4", failure.getMessage());
+
+        Files.writeString(file, "1,100\nid,balance\n", StandardCharsets.US_ASCII);
+        failure = assertThrows(IllegalArgumentException.class, () -> LedgerFile.read(file, LedgerFormat.CSV));
+        assertEquals("Malformed ledger line on line 2", failure.getMessage());
+
+        Files.writeString(file, "1,100\n2,9223372036854775808\n", StandardCharsets.US_ASCII);
+        failure = assertThrows(IllegalArgumentException.class, () -> LedgerFile.read(file, LedgerFormat.CSV));
+        assertEquals("Number out of range on line 2", failure.getMessage());
+    }
+
+    @Test
+    void testCsvRoundTripsExtremeBalances() throws IOException {
+        Path file = directory.resolve("extremes.csv");
+        LedgerFile.write(file, LedgerFormat.CSV, Account.openAll(new long[]{Long.MIN_VALUE, Long.MAX_VALUE, 0}));
+
+        List<Account> restored = LedgerFile.read(file, LedgerFormat.CSV);
+
+        assertEquals(Long.MIN_VALUE, restored.get(0).getBalance());
+        assertEquals(Long.MAX_VALUE, restored.get(1).getBalance());
+        assertEquals(0, restored.get(2).getBalance());
+    }
+
+    @Test
+    void testCorruptBinaryRejected() throws IOException {
+        Path file = directory.resolve("broken.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        assertThrows(IOException.class, () -> LedgerFile.read(file, LedgerFormat.BINARY));
+
+        LedgerFile.write(file, LedgerFormat.BINARY, Account.openAll(new long[]{1, 2}));
+        byte[] truncated = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(truncated, truncated.length - 1));
+        assertThrows(IOException.class, () -> LedgerFile.read(file, LedgerFormat.BINARY));
+    }
+
+    private void assertRoundTrip(LedgerFormat format, int count) throws IOException {
+        long[] balances = new long[count];
+        for (int i = 0; i < count; i++) {
+            balances[i] = (i * 7919L) % 1_000_003;
+        }
+        List<Account> accounts = Account.openAll(balances);
+        Path file = directory.resolve("ledger-" + format + "-" + count);
+
+        LedgerFile.write(file, format, accounts);
+        List<Account> restored = LedgerFile.read(file, format);
+
+        assertEquals(count, restored.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(accounts.get(i).getId(), restored.get(i).getId());
+            assertEquals(balances[i], restored.get(i).getBalance());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadGeneratorTest {
+
+    @Test
+    void testIssuesEveryTransferAndCountsOutcomes() throws InterruptedException {
+        List<Account> accounts = List.of(new Account(10), new Account(10), new Account(10));
+        LoadGenerator generator = new LoadGenerator(new Bank(), accounts, 5_000, 1_000, 50);
+
+        LoadGenerator.Report report;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            report = generator.run(executor);
+        }
+
+        assertEquals(1_000, report.latencies().getCount());
+        assertEquals(1_000, report.count(TransferResult.SUCCESS) + report.count(TransferResult.INSUFFICIENT_FUNDS));
+        assertTrue(report.count(TransferResult.INSUFFICIENT_FUNDS) > 0);
+        assertEquals(30, accounts.stream().mapToLong(Account::getBalance).sum());
+    }
+
+    @Test
+    void testHoldsTargetRate() throws InterruptedException {
+        List<Account> accounts = List.of(new Account(1_000_000), new Account(1_000_000));
+        LoadGenerator generator = new LoadGenerator(new Bank(), accounts, 1_000, 200, 1);
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            generator.run(executor);
+        }
+
+        assertTrue(System.nanoTime() - start >= 190_000_000L, "Transfers were issued faster than the target rate");
+    }
+
+    @Test
+    void testLatencyIncludesSchedulingDelay() throws InterruptedException {
+        List<Account> accounts = List.of(new Account(1_000_000), new Account(1_000_000));
+        LoadGenerator generator = new LoadGenerator(new Bank(), accounts, 1_000, 100, 1);
+
+        LoadGenerator.Report report;
+        // One slow worker: transfers queue up, and the wait must show up in their latency.
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            report = generator.run(executor);
+        }
+
+        assertTrue(report.latencies().getMax() >= 40_000_000L);
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        List<Account> accounts = List.of(new Account(1), new Account(1));
+
+        assertThrows(IllegalArgumentException.class, () -> new LoadGenerator(new Bank(), accounts, 0, 10, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LoadGenerator(new Bank(), List.of(new Account(1)), 10, 10, 1));
+    }
+}
@@ -0,0 +1,102 @@
+package org.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockFreeTransferStrategyTest {
+
+    private Bank bank;
+
+    @BeforeEach
+    void setUp() {
+        bank = new Bank(new LockFreeTransferStrategy());
+    }
+
+    @Test
+    void testSuccessfulTransfer() {
+        Account from = new Account(1000);
+        Account to = new Account(500);
+
+        bank.transfer(from, to, 200);
+
+        assertEquals(800, from.getBalance());
+        assertEquals(700, to.getBalance());
+    }
+
+    @Test
+    void testTransferInsufficientFunds() {
+        Account from = new Account(100);
+        Account to = new Account(500);
+
+        assertFalse(new LockFreeTransferStrategy().transfer(from, to, 200));
+
+        assertEquals(100, from.getBalance());
+        assertEquals(500, to.getBalance());
+    }
+
+    @Test
+    void testTransferFromHigherIdToLowerId() {
+        Account low = new Account(100);
+        Account high = new Account(100);
+
+        bank.transfer(high, low, 40);
+
+        assertEquals(140, low.getBalance());
+        assertEquals(60, high.getBalance());
+    }
+
+    @Test
+    void testConcurrentRandomTransfers() throws InterruptedException {
+        assertTotalPreserved(bank, bank, 10, 20, 1000);
+    }
+
+    @Test
+    void testConcurrentTransfersMixedWithLockingStrategy() throws InterruptedException {
+        assertTotalPreserved(bank, new Bank(new LockingTransferStrategy()), 5, 20, 1000);
+    }
+
+    private static void assertTotalPreserved(Bank even, Bank odd, int numAccounts, int numThreads,
+                                             int numTransfers) throws InterruptedException {
+        Account[] accounts = new Account[numAccounts];
+        for (int i = 0; i < numAccounts; i++) {
+            accounts[i] = new Account(1000);
+        }
+
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int i = 0; i < numThreads; i++) {
+                Bank bank = (i % 2 == 0) ? even : odd;
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int j = 0; j < numTransfers; j++) {
+                            Account from = accounts[rnd.nextInt(numAccounts)];
+                            Account to = accounts[rnd.nextInt(numAccounts)];
+                            bank.transfer(from, to, rnd.nextLong(1, 300));
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            boolean finished = latch.await(10, TimeUnit.SECONDS);
+            assertTrue(finished, "Test timed out - possible livelock.");
+        }
+
+        long finalTotal = 0;
+        for (Account acc : accounts) {
+            assertTrue(acc.getBalance() >= 0);
+            finalTotal += acc.getBalance();
+        }
+
+        assertEquals(numAccounts * 1000L, finalTotal);
+    }
+}
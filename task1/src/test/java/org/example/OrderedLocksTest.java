@@ -0,0 +1,72 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedLocksTest {
+
+    @Test
+    void testLocksReleasedAfterAction() {
+        ReentrantLock first = new ReentrantLock();
+        ReentrantLock second = new ReentrantLock();
+
+        assertEquals(42, OrderedLocks.callLocked(new ReentrantLock[]{first, second}, () -> {
+            assertTrue(first.isHeldByCurrentThread());
+            assertTrue(second.isHeldByCurrentThread());
+            return 42;
+        }));
+
+        assertFalse(first.isLocked());
+        assertFalse(second.isLocked());
+    }
+
+    @Test
+    void testLocksReleasedWhenActionThrows() {
+        ReentrantLock lock = new ReentrantLock();
+
+        assertThrows(IllegalStateException.class, () -> OrderedLocks.callLocked(new ReentrantLock[]{lock}, () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertFalse(lock.isLocked());
+    }
+
+    @Test
+    void testWaitsForLockHeldByAnotherThread() throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        lock.lock();
+        Thread waiter = Thread.ofVirtual().start(() -> OrderedLocks.callLocked(new ReentrantLock[]{lock}, () -> null));
+
+        Thread.sleep(50);
+        assertTrue(waiter.isAlive());
+        lock.unlock();
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+    }
+
+    @Test
+    void testVirtualThreadTransfersPreserveTotal() {
+        Bank bank = new Bank(new LockingTransferStrategy());
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            accounts.add(new Account(1000));
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10_000; i++) {
+                executor.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    bank.transfer(accounts.get(rnd.nextInt(10)), accounts.get(rnd.nextInt(10)), rnd.nextLong(1, 100));
+                });
+            }
+        }
+
+        assertEquals(10_000, accounts.stream().mapToLong(Account::getBalance).sum());
+    }
+}
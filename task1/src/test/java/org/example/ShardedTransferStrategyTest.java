@@ -0,0 +1,243 @@
+package org.example;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTransferStrategyTest {
+
+    private ShardedTransferStrategy strategy;
+    private Bank bank;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new ShardedTransferStrategy(4);
+        bank = new Bank(strategy);
+    }
+
+    @AfterEach
+    void tearDown() {
+        strategy.close();
+    }
+
+    @Test
+    void testConstructorInvalidShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedTransferStrategy(0));
+    }
+
+    @Test
+    void testSameShardTransfer() {
+        Account from = new Account(1000);
+        Account to = nextAccountOnShard(strategy.shardFor(from.getId()), 500);
+
+        bank.transfer(from, to, 200);
+
+        assertEquals(800, from.getBalance());
+        assertEquals(700, to.getBalance());
+        assertEquals(0, strategy.getCrossShardTransfers());
+    }
+
+    @Test
+    void testCrossShardTransfer() {
+        Account from = new Account(1000);
+        Account to = new Account(500);
+        assertNotEquals(strategy.shardFor(from.getId()), strategy.shardFor(to.getId()));
+
+        assertTrue(strategy.transfer(from, to, 200));
+
+        assertEquals(800, from.getBalance());
+        assertEquals(700, to.getBalance());
+        assertEquals(1, strategy.getCrossShardTransfers());
+        assertEquals(0, strategy.getInFlightAmount());
+    }
+
+    @Test
+    void testCrossShardInsufficientFunds() {
+        Account from = new Account(100);
+        Account to = new Account(500);
+
+        assertFalse(strategy.transfer(from, to, 200));
+
+        assertEquals(100, from.getBalance());
+        assertEquals(500, to.getBalance());
+    }
+
+    @Test
+    void testConcurrentRandomTransfers() throws InterruptedException {
+        int numAccounts = 10;
+        int numThreads = 20;
+        int numTransfers = 500;
+
+        Account[] accounts = new Account[numAccounts];
+        for (int i = 0; i < numAccounts; i++) {
+            accounts[i] = new Account(1000);
+        }
+
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int i = 0; i < numThreads; i++) {
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int j = 0; j < numTransfers; j++) {
+                            bank.transfer(accounts[rnd.nextInt(numAccounts)], accounts[rnd.nextInt(numAccounts)],
+                                    rnd.nextLong(1, 300));
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertTrue(latch.await(20, TimeUnit.SECONDS), "Test timed out.");
+        }
+
+        long finalTotal = 0;
+        for (Account acc : accounts) {
+            finalTotal += acc.getBalance();
+        }
+        assertEquals(numAccounts * 1000L, finalTotal);
+        assertEquals(0, strategy.getInFlightAmount());
+        for (int shard = 0; shard < strategy.getShardCount(); shard++) {
+            assertEquals(0, strategy.getQueueDepth(shard));
+        }
+    }
+
+    @Test
+    void testFailingCommandCompletesFutureAndShardKeepsRunning() {
+        Account broken = new Account(1000) {
+            @Override
+            public boolean isHot() {
+                throw new IllegalStateException("Broken account");
+            }
+        };
+        Account other = nextAccountOnShard(strategy.shardFor(broken.getId()), 500);
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> strategy.transfer(broken, other, 100));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        Account from = nextAccountOnShard(strategy.shardFor(broken.getId()), 300);
+        assertTrue(strategy.transfer(from, other, 100));
+        assertEquals(200, from.getBalance());
+        assertEquals(600, other.getBalance());
+    }
+
+    @Test
+    void testCloseFinishesQueuedTransfersAndRejectsNewOnes() {
+        Account[] accounts = new Account[8];
+        for (int i = 0; i < accounts.length; i++) {
+            accounts[i] = new Account(1000);
+        }
+
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < 5_000; i++) {
+            int from = rnd.nextInt(accounts.length);
+            int to = (from + 1 + rnd.nextInt(accounts.length - 1)) % accounts.length;
+            results.add(strategy.transferAsync(accounts[from], accounts[to], rnd.nextLong(1, 100)));
+        }
+        strategy.close();
+
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.isDone(), "Every queued transfer is finished or failed on close");
+        }
+        long total = 0;
+        for (Account account : accounts) {
+            total += account.getBalance();
+        }
+        assertEquals(accounts.length * 1000L, total);
+        assertEquals(0, strategy.getInFlightAmount());
+        assertThrows(IllegalStateException.class, () -> strategy.transfer(accounts[0], accounts[1], 1));
+    }
+
+    @Test
+    void testSnapshotsSeeSameShardTransfersWhole() throws Exception {
+        Account[] accounts = new Account[6];
+        accounts[0] = new Account(1000);
+        for (int i = 1; i < accounts.length; i++) {
+            accounts[i] = nextAccountOnShard(strategy.shardFor(accounts[0].getId()), 1000);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(2)) {
+            for (int i = 0; i < 2; i++) {
+                service.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    while (running.get()) {
+                        int from = rnd.nextInt(accounts.length);
+                        strategy.transfer(accounts[from], accounts[(from + 1) % accounts.length], rnd.nextLong(1, 50));
+                    }
+                });
+            }
+            try {
+                for (int i = 0; i < 2_000; i++) {
+                    assertEquals(accounts.length * 1000L, bank.snapshot(List.of(accounts)).total());
+                }
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    @Test
+    void testBatchesHoldTheirShardsAgainstConcurrentTransfers() throws InterruptedException {
+        int numAccounts = 8;
+        int numThreads = 8;
+        int numOperations = 300;
+
+        Account[] accounts = new Account[numAccounts];
+        for (int i = 0; i < numAccounts; i++) {
+            accounts[i] = new Account(1000);
+        }
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int i = 0; i < numThreads; i++) {
+                boolean batching = i % 2 == 0;
+                service.submit(() -> {
+                    ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                    for (int j = 0; j < numOperations; j++) {
+                        int from = rnd.nextInt(numAccounts);
+                        int to = (from + 1 + rnd.nextInt(numAccounts - 1)) % numAccounts;
+                        if (batching) {
+                            int third = (to + 1) % numAccounts;
+                            bank.transferBatch(List.of(new Transfer(accounts[from], accounts[to], rnd.nextLong(1, 100)),
+                                    new Transfer(accounts[to], accounts[third], rnd.nextLong(1, 100))));
+                        } else {
+                            bank.transfer(accounts[from], accounts[to], rnd.nextLong(1, 100));
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+
+        long total = 0;
+        for (Account account : accounts) {
+            total += account.getBalance();
+        }
+        assertEquals(numAccounts * 1000L, total);
+        assertEquals(0, strategy.getInFlightAmount());
+    }
+
+    private Account nextAccountOnShard(int shard, long balance) {
+        while (true) {
+            Account account = new Account(balance);
+            if (strategy.shardFor(account.getId()) == shard) {
+                return account;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedLockTransferStrategyTest {
+
+    @Test
+    void testConstructorInvalidStripeCount() {
+        assertThrows(IllegalArgumentException.class, () -> new StripedLockTransferStrategy(0));
+        assertThrows(IllegalArgumentException.class, () -> new LockStripes(-1));
+    }
+
+    @Test
+    void testSuccessfulTransfer() {
+        Bank bank = new Bank(new StripedLockTransferStrategy(8));
+        Account from = new Account(1000);
+        Account to = new Account(500);
+
+        bank.transfer(from, to, 200);
+
+        assertEquals(800, from.getBalance());
+        assertEquals(700, to.getBalance());
+    }
+
+    @Test
+    void testTransferInsufficientFunds() {
+        StripedLockTransferStrategy strategy = new StripedLockTransferStrategy(8);
+        Account from = new Account(100);
+        Account to = new Account(500);
+
+        assertFalse(strategy.transfer(from, to, 200));
+
+        assertEquals(100, from.getBalance());
+        assertEquals(500, to.getBalance());
+    }
+
+    @Test
+    void testSameStripeCountsCollision() {
+        StripedLockTransferStrategy strategy = new StripedLockTransferStrategy(1);
+        Account from = new Account(100);
+        Account to = new Account(100);
+
+        assertTrue(strategy.transfer(from, to, 10));
+
+        LockStripes stripes = strategy.getStripes();
+        assertEquals(1, stripes.getPairAcquisitions());
+        assertEquals(1, stripes.getCollisions());
+        assertEquals(1.0, stripes.getCollisionRate());
+    }
+
+    @Test
+    void testDistinctStripesDoNotCollide() {
+        LockStripes stripes = new LockStripes(1024);
+        StripedLockTransferStrategy strategy = new StripedLockTransferStrategy(stripes);
+        Account from = new Account(100);
+        Account to = new Account(100);
+
+        strategy.transfer(from, to, 10);
+
+        assertNotEquals(stripes.stripeFor(from.getId()), stripes.stripeFor(to.getId()));
+        assertEquals(0, stripes.getCollisions());
+        assertEquals(0.0, stripes.getCollisionRate());
+    }
+
+    @Test
+    void testConcurrentRandomTransfers() throws InterruptedException {
+        Bank bank = new Bank(new StripedLockTransferStrategy(3));
+        int numAccounts = 10;
+        int numThreads = 20;
+        int numTransfers = 1000;
+
+        Account[] accounts = new Account[numAccounts];
+        for (int i = 0; i < numAccounts; i++) {
+            accounts[i] = new Account(1000);
+        }
+
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int i = 0; i < numThreads; i++) {
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int j = 0; j < numTransfers; j++) {
+                            bank.transfer(accounts[rnd.nextInt(numAccounts)], accounts[rnd.nextInt(numAccounts)], 5);
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            boolean finished = latch.await(10, TimeUnit.SECONDS);
+            assertTrue(finished, "Test timed out - possible deadlock.");
+        }
+
+        long finalTotal = 0;
+        for (Account acc : accounts) {
+            finalTotal += acc.getBalance();
+        }
+        assertEquals(numAccounts * 1000L, finalTotal);
+    }
+}
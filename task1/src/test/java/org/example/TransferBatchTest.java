@@ -0,0 +1,123 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferBatchTest {
+
+    @Test
+    void testBatchNetsTransfers() {
+        Bank bank = new Bank();
+        Account a = new Account(100);
+        Account b = new Account(100);
+        Account c = new Account(0);
+
+        BatchResult result = bank.transferBatch(List.of(
+                new Transfer(a, b, 30),
+                new Transfer(b, a, 10),
+                new Transfer(b, c, 120)));
+
+        assertEquals(3, result.succeeded());
+        assertEquals(80, a.getBalance());
+        assertEquals(0, b.getBalance());
+        assertEquals(120, c.getBalance());
+    }
+
+    @Test
+    void testBatchReportsPerItemFailures() {
+        Bank bank = new Bank();
+        Account a = new Account(50);
+        Account b = new Account(0);
+
+        BatchResult result = bank.transferBatch(List.of(
+                new Transfer(a, b, 40),
+                new Transfer(a, b, 40),
+                new Transfer(b, a, 0),
+                new Transfer(a, a, 5),
+                new Transfer(b, a, 40)));
+
+        assertEquals(TransferResult.SUCCESS, result.get(0));
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, result.get(1));
+        assertEquals(TransferResult.INVALID_AMOUNT, result.get(2));
+        assertEquals(TransferResult.SAME_ACCOUNT, result.get(3));
+        assertEquals(TransferResult.SUCCESS, result.get(4));
+        assertEquals(3, result.failed());
+        assertEquals(50, a.getBalance());
+        assertEquals(0, b.getBalance());
+    }
+
+    @Test
+    void testEmptyAndInvalidOnlyBatches() {
+        Bank bank = new Bank();
+        Account a = new Account(10);
+
+        assertEquals(0, bank.transferBatch(List.of()).size());
+        assertEquals(TransferResult.SAME_ACCOUNT, bank.transferBatch(List.of(new Transfer(a, a, 1))).get(0));
+        assertEquals(10, a.getBalance());
+    }
+
+    @Test
+    void testLockingBatchesConcurrentWithTransfers() throws InterruptedException {
+        assertBatchesPreserveTotal(new Bank(new LockingTransferStrategy()));
+    }
+
+    @Test
+    void testStripedBatchesConcurrentWithTransfers() throws InterruptedException {
+        assertBatchesPreserveTotal(new Bank(new StripedLockTransferStrategy(4)));
+    }
+
+    @Test
+    void testLockFreeBatchesConcurrentWithTransfers() throws InterruptedException {
+        assertBatchesPreserveTotal(new Bank(new LockFreeTransferStrategy()));
+    }
+
+    private static void assertBatchesPreserveTotal(Bank bank) throws InterruptedException {
+        int numAccounts = 10;
+        int numThreads = 8;
+        int numRounds = 200;
+
+        List<Account> accounts = new ArrayList<>();
+        for (int i = 0; i < numAccounts; i++) {
+            accounts.add(new Account(1000));
+        }
+
+        CountDownLatch latch = new CountDownLatch(numThreads);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+            for (int t = 0; t < numThreads; t++) {
+                boolean batching = t % 2 == 0;
+                service.submit(() -> {
+                    try {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int round = 0; round < numRounds; round++) {
+                            if (batching) {
+                                List<Transfer> batch = new ArrayList<>();
+                                for (int i = 0; i < 20; i++) {
+                                    batch.add(new Transfer(accounts.get(rnd.nextInt(numAccounts)),
+                                            accounts.get(rnd.nextInt(numAccounts)), rnd.nextLong(1, 300)));
+                                }
+                                bank.transferBatch(batch);
+                            } else {
+                                bank.transfer(accounts.get(rnd.nextInt(numAccounts)),
+                                        accounts.get(rnd.nextInt(numAccounts)), rnd.nextLong(1, 300));
+                            }
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertTrue(latch.await(20, TimeUnit.SECONDS), "Test timed out - possible deadlock.");
+        }
+
+        assertEquals(numAccounts * 1000L, bank.snapshot(accounts).total());
+    }
+}
@@ -0,0 +1,176 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferDedupCacheTest {
+
+    @Test
+    void testRetryReturnsOriginalResultWithoutDebitingAgain() {
+        Bank bank = new Bank();
+        Account from = new Account(100);
+        Account to = new Account(0);
+
+        assertEquals(TransferResult.SUCCESS, bank.transfer("t-1", from, to, 60));
+        assertEquals(TransferResult.SUCCESS, bank.transfer("t-1", from, to, 60));
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, bank.transfer("t-2", from, to, 60));
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, bank.transfer("t-2", from, to, 60));
+
+        assertEquals(40, from.getBalance());
+        assertEquals(60, to.getBalance());
+        assertEquals(2, bank.getDedupCache().getHits());
+        assertEquals(2, bank.getDedupCache().getMisses());
+        assertEquals(0.5, bank.getDedupCache().getHitRate());
+    }
+
+    @Test
+    void testReusedIdWithDifferentParametersIsRejected() {
+        Bank bank = new Bank();
+        Account from = new Account(100);
+        Account to = new Account(0);
+        Account other = new Account(0);
+
+        assertEquals(TransferResult.SUCCESS, bank.transfer("t-1", from, to, 30));
+        assertEquals(TransferResult.ID_REUSED, bank.transfer("t-1", from, to, 40));
+        assertEquals(TransferResult.ID_REUSED, bank.transfer("t-1", from, other, 30));
+        assertEquals(TransferResult.ID_REUSED, bank.transfer("t-1", to, from, 30));
+        assertEquals(TransferResult.SUCCESS, bank.transfer("t-1", from, to, 30));
+
+        assertEquals(70, from.getBalance());
+        assertEquals(30, to.getBalance());
+        assertEquals(0, other.getBalance());
+        assertEquals(3, bank.getDedupCache().getMismatches());
+        assertEquals(1, bank.getDedupCache().getHits());
+    }
+
+    @Test
+    void testExpiredEntriesAreForgotten() {
+        AtomicLong now = new AtomicLong(0);
+        TransferDedupCache cache = new TransferDedupCache(100, Duration.ofSeconds(1), 4, now::get);
+        AtomicInteger runs = new AtomicInteger();
+
+        cache.execute("t", 1, 2, 10, () -> count(runs));
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        cache.execute("t", 1, 2, 10, () -> count(runs));
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        cache.execute("t", 1, 2, 10, () -> count(runs));
+
+        assertEquals(2, runs.get());
+        assertEquals(1, cache.getExpirations());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testOldestEntryEvictedWhenSegmentFull() {
+        TransferDedupCache cache = new TransferDedupCache(3, Duration.ofMinutes(1), 1, System::nanoTime);
+        AtomicInteger runs = new AtomicInteger();
+
+        for (String id : new String[]{"a", "b", "c", "d"}) {
+            cache.execute(id, 1, 2, 10, () -> count(runs));
+        }
+        cache.execute("d", 1, 2, 10, () -> count(runs));
+        cache.execute("a", 1, 2, 10, () -> count(runs));
+
+        assertEquals(5, runs.get());
+        assertEquals(2, cache.getEvictions());
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void testInFlightTransferIsNeitherEvictedNorExpired() throws Exception {
+        AtomicLong now = new AtomicLong(0);
+        TransferDedupCache cache = new TransferDedupCache(1, Duration.ofSeconds(1), 1, now::get);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+
+        try (ExecutorService service = Executors.newFixedThreadPool(2)) {
+            Future<TransferResult> original = service.submit(() -> cache.execute("slow", 1, 2, 10, () -> {
+                started.countDown();
+                release.join();
+                return count(runs);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            cache.execute("other", 1, 2, 10, () -> TransferResult.SUCCESS);
+            now.addAndGet(Duration.ofSeconds(2).toNanos());
+            cache.execute("later", 1, 2, 10, () -> TransferResult.SUCCESS);
+            Future<TransferResult> retry = service.submit(() -> cache.execute("slow", 1, 2, 10, () -> count(runs)));
+            while (cache.getHits() == 0 && !retry.isDone()) {
+                Thread.onSpinWait();
+            }
+
+            release.complete(null);
+            assertEquals(TransferResult.SUCCESS, original.get(5, TimeUnit.SECONDS));
+            assertEquals(TransferResult.SUCCESS, retry.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, runs.get());
+        assertEquals(1, cache.getHits());
+        cache.execute("last", 1, 2, 10, () -> TransferResult.SUCCESS);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testFailedTransferCanBeRetried() {
+        TransferDedupCache cache = new TransferDedupCache();
+
+        assertThrows(IllegalStateException.class, () -> cache.execute("t", 1, 2, 10, () -> {
+            throw new IllegalStateException("journal unavailable");
+        }));
+
+        assertEquals(TransferResult.SUCCESS, cache.execute("t", 1, 2, 10, () -> TransferResult.SUCCESS));
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    void testConcurrentRetriesExecuteOnce() throws Exception {
+        Bank bank = new Bank(new LockFreeTransferStrategy());
+        Account from = new Account(1_000);
+        Account to = new Account(0);
+        int retries = 16;
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(retries)) {
+            Future<?>[] futures = new Future<?>[retries];
+            for (int i = 0; i < retries; i++) {
+                futures[i] = service.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < 100; j++) {
+                        assertEquals(TransferResult.SUCCESS, bank.transfer("retry-" + j, from, to, 5));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(500, from.getBalance());
+        assertEquals(500, to.getBalance());
+        assertEquals(100, bank.getDedupCache().getMisses());
+        assertEquals(100 * (retries - 1), bank.getDedupCache().getHits());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new TransferDedupCache(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> new TransferDedupCache(10, Duration.ZERO));
+    }
+
+    private static TransferResult count(AtomicInteger runs) {
+        runs.incrementAndGet();
+        return TransferResult.SUCCESS;
+    }
+}
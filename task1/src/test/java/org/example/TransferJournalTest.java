@@ -0,0 +1,290 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TransferJournal.open(directory, DurabilityMode.ASYNC, 0, 10));
+    }
+
+    @Test
+    void testRecoverReplaysTransfers() throws IOException {
+        Account from = new Account(1000);
+        Account to = new Account(500);
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.PER_TRANSFER)) {
+            journal.recordOpening(from);
+            journal.recordOpening(to);
+
+            Bank bank = new Bank(new LockingTransferStrategy(), journal);
+            bank.transfer(from, to, 200);
+            bank.transfer(from, to, 5000);
+            bank.transfer(to, from, 50);
+
+            // The rejected transfer still fills the sequence number it reserved with a skipped record.
+            assertEquals(journal.getNextSeq(), journal.getDurableSeq());
+            assertEquals(5, journal.getNextSeq());
+        }
+
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        assertEquals(850, balances.get(from.getId()));
+        assertEquals(650, balances.get(to.getId()));
+    }
+
+    @Test
+    void testRecoveredAccountsKeepIdsAndBalances() throws IOException {
+        Account account = new Account(300);
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.ASYNC)) {
+            journal.recordOpening(account);
+        }
+
+        List<Account> recovered = TransferJournal.recoverAccounts(directory);
+        assertEquals(1, recovered.size());
+        assertEquals(account.getId(), recovered.get(0).getId());
+        assertEquals(300, recovered.get(0).getBalance());
+        assertTrue(new Account(0).getId() > account.getId());
+    }
+
+    @Test
+    void testCheckpointDeletesCoveredSegments() throws IOException {
+        Account from = new Account(10_000);
+        Account to = new Account(0);
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.BATCHED, 4, Long.MAX_VALUE)) {
+            Bank bank = new Bank(new LockFreeTransferStrategy(), journal);
+            journal.recordOpening(from);
+            journal.recordOpening(to);
+            for (int i = 0; i < 10; i++) {
+                bank.transfer(from, to, 10);
+            }
+
+            assertEquals(3, countSegments());
+            journal.checkpoint();
+            assertEquals(0, countSegments());
+
+            bank.transfer(from, to, 1);
+            assertEquals(1, countSegments());
+        }
+
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        assertEquals(9_899, balances.get(from.getId()));
+        assertEquals(101, balances.get(to.getId()));
+    }
+
+    @Test
+    void testReopenContinuesSequence() throws IOException {
+        Account from = new Account(100);
+        Account to = new Account(100);
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.PER_TRANSFER, 8, 3)) {
+            journal.recordOpening(from);
+            journal.recordOpening(to);
+            new Bank(new LockingTransferStrategy(), journal).transfer(from, to, 30);
+        }
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.PER_TRANSFER, 16, 3)) {
+            assertEquals(3, journal.getNextSeq());
+            new Bank(new LockingTransferStrategy(), journal).transfer(to, from, 5);
+        }
+
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        assertEquals(75, balances.get(from.getId()));
+        assertEquals(125, balances.get(to.getId()));
+    }
+
+    @Test
+    void testRecordsAfterTornRecordAreDiscardedOnReopen() throws IOException {
+        Account first = new Account(100);
+        Account second = new Account(100);
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.PER_TRANSFER)) {
+            journal.recordOpening(first);
+            journal.recordOpening(second);
+            Bank bank = new Bank(new LockingTransferStrategy(), journal);
+            bank.transfer(first, second, 10);
+            bank.transfer(first, second, 20);
+        }
+
+        // Tear record 2 while record 3 behind it stays intact, as after a crash mid-write.
+        try (Stream<Path> files = Files.list(directory);
+             FileChannel channel = FileChannel.open(files.filter(file -> file.toString().endsWith(".log"))
+                     .findFirst().orElseThrow(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES), 2L * TransferJournal.RECORD_SIZE);
+        }
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.PER_TRANSFER)) {
+            assertEquals(2, journal.getNextSeq());
+            journal.append(second.getId(), first.getId(), 5);
+        }
+
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        assertEquals(105, balances.get(first.getId()));
+        assertEquals(95, balances.get(second.getId()));
+    }
+
+    @Test
+    void testClosedJournalRejectsTransfersBeforeMovingMoney() throws IOException {
+        Account from = new Account(100);
+        Account to = new Account(0);
+        TransferJournal journal = TransferJournal.open(directory, DurabilityMode.PER_TRANSFER);
+        Bank bank = new Bank(new LockingTransferStrategy(), journal);
+        journal.recordOpening(from);
+        journal.recordOpening(to);
+        assertEquals(TransferResult.INSUFFICIENT_FUNDS, bank.transfer(from, to, 500));
+        journal.close();
+
+        assertThrows(IllegalStateException.class, () -> bank.transfer("t-1", from, to, 40));
+        assertThrows(IllegalStateException.class, () -> bank.transfer("t-1", from, to, 40));
+        assertThrows(IllegalStateException.class, () -> bank.transferBatch(List.of(new Transfer(from, to, 10))));
+
+        assertEquals(100, from.getBalance());
+        assertEquals(0, to.getBalance());
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        assertEquals(100, balances.get(from.getId()));
+        assertEquals(0, balances.get(to.getId()));
+    }
+
+    @Test
+    void testConcurrentTransfersRecoverToLiveBalances() throws Exception {
+        int numAccounts = 10;
+        int numThreads = 8;
+        int numTransfers = 500;
+
+        Account[] accounts = new Account[numAccounts];
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.BATCHED, 256, 1000)) {
+            for (int i = 0; i < numAccounts; i++) {
+                accounts[i] = new Account(1000);
+                journal.recordOpening(accounts[i]);
+            }
+
+            Bank bank = new Bank(new StripedLockTransferStrategy(4), journal);
+            CountDownLatch latch = new CountDownLatch(numThreads);
+
+            try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+                for (int i = 0; i < numThreads; i++) {
+                    service.submit(() -> {
+                        try {
+                            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                            for (int j = 0; j < numTransfers; j++) {
+                                bank.transfer(accounts[rnd.nextInt(numAccounts)],
+                                        accounts[rnd.nextInt(numAccounts)], rnd.nextLong(1, 100));
+                            }
+                        } finally {
+                            latch.countDown();
+                        }
+                    });
+                }
+
+                assertTrue(latch.await(20, TimeUnit.SECONDS));
+            }
+        }
+
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        for (Account account : accounts) {
+            assertEquals(account.getBalance(), balances.get(account.getId()));
+        }
+    }
+
+    @Test
+    void testCloseLetsRunningCheckpointFinish() throws Exception {
+        Account from = new Account(1_000_000);
+        Account to = new Account(0);
+
+        for (int round = 0; round < 20; round++) {
+            TransferJournal journal = TransferJournal.open(directory, DurabilityMode.BATCHED, 8, 1);
+            if (round == 0) {
+                journal.recordOpening(from);
+                journal.recordOpening(to);
+            }
+            Bank bank = new Bank(new LockingTransferStrategy(), journal);
+            for (int i = 0; i < 50; i++) {
+                assertTrue(bank.transfer(from, to, 1).isSuccess());
+            }
+            journal.close();
+            assertNull(journal.getFailure(), "Closing never interrupts a checkpoint in progress");
+        }
+
+        Map<Long, Long> balances = TransferJournal.recoverBalances(directory);
+        assertEquals(from.getBalance(), balances.get(from.getId()));
+        assertEquals(to.getBalance(), balances.get(to.getId()));
+    }
+
+    @Test
+    void testEveryJournalPrefixReplaysWithoutOverdraft() throws Exception {
+        int numThreads = 4;
+        int numTransfers = 2_000;
+        Account[] accounts = {new Account(10), new Account(0), new Account(0)};
+
+        try (TransferJournal journal = TransferJournal.open(directory, DurabilityMode.ASYNC)) {
+            for (Account account : accounts) {
+                journal.recordOpening(account);
+            }
+            Bank bank = new Bank(new LockFreeTransferStrategy(), journal);
+
+            try (ExecutorService service = Executors.newFixedThreadPool(numThreads)) {
+                for (int i = 0; i < numThreads; i++) {
+                    service.submit(() -> {
+                        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                        for (int j = 0; j < numTransfers; j++) {
+                            int from = rnd.nextInt(accounts.length);
+                            bank.transfer(accounts[from], accounts[(from + 1) % accounts.length], rnd.nextLong(1, 10));
+                        }
+                    });
+                }
+            }
+        }
+
+        // Each record is the sequence marker followed by from, to and amount, all big-endian longs.
+        ByteBuffer records;
+        try (Stream<Path> files = Files.list(directory)) {
+            records = ByteBuffer.wrap(Files.readAllBytes(files
+                    .filter(file -> file.getFileName().toString().endsWith(".log")).findFirst().orElseThrow()));
+        }
+        Map<Long, Long> balances = new HashMap<>();
+        for (int offset = 0; records.getLong(offset) != 0; offset += TransferJournal.RECORD_SIZE) {
+            long fromId = records.getLong(offset + 8);
+            long amount = records.getLong(offset + 24);
+            if (fromId == TransferJournal.SKIPPED) {
+                continue;
+            }
+            if (fromId != TransferJournal.OPENING) {
+                assertTrue(balances.merge(fromId, -amount, Long::sum) >= 0,
+                        "Record " + offset / TransferJournal.RECORD_SIZE + " debits money not journaled yet");
+            }
+            balances.merge(records.getLong(offset + 16), amount, Long::sum);
+        }
+        for (Account account : accounts) {
+            assertEquals(account.getBalance(), balances.get(account.getId()));
+        }
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).count();
+        }
+    }
+}
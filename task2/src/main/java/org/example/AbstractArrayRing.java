@@ -0,0 +1,149 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Shared layout of the array-backed rings: a power-of-two slot array indexed by masking padded
+ * head and tail sequences, with the waiting behind {@code put}/{@code take} delegated to a
+ * {@link WaitStrategy}. Like
+ * {@link RingBuffer}, a ring created with capacity {@code n} holds at most {@code n - 1} items.
+ * Subclasses supply the single and batch claims with whatever synchronization their producer and
+ * consumer counts need; the single {@code offer}/{@code poll} signal waiters themselves.
+ */
+abstract class AbstractArrayRing<T> implements BlockingRing<T> {
+    protected final Object[] slots;
+    protected final int mask;
+    protected final int limit;
+    protected final Sequence head = new Sequence(0);
+    protected final Sequence tail = new Sequence(0);
+
+    private final WaitStrategy waitStrategy;
+
+    protected AbstractArrayRing(int capacity, Supplier<? extends WaitStrategy> waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+
+        int length = Integer.highestOneBit(Math.max(1, capacity - 1));
+        if (length < capacity - 1) {
+            length <<= 1;
+        }
+
+        this.slots = new Object[length];
+        this.mask = length - 1;
+        this.limit = capacity - 1;
+        this.waitStrategy = waitStrategy.get();
+    }
+
+    /**
+     * Claims one contiguous run of free slots for {@code items[from..]}, fills it and publishes
+     * it. Returns the run length, which is zero when the ring is full. Does not signal.
+     */
+    protected abstract int publishRun(List<? extends T> items, int from);
+
+    /**
+     * Claims one contiguous run of up to {@code max} published items and moves it into
+     * {@code sink}. Returns the run length. Does not signal.
+     */
+    protected abstract int consumeRun(Collection<? super T> sink, int max);
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        if (!offer(item)) {
+            waitStrategy.await(Gate.NOT_FULL, () -> offer(item), false, 0);
+        }
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        return offer(item) || waitStrategy.await(Gate.NOT_FULL, () -> offer(item), true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        T item = poll();
+        if (item != null) {
+            return item;
+        }
+
+        Object[] taken = new Object[1];
+        waitStrategy.await(Gate.NOT_EMPTY, () -> (taken[0] = poll()) != null, false, 0);
+        return cast(taken[0]);
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T item = poll();
+        if (item != null) {
+            return item;
+        }
+
+        Object[] taken = new Object[1];
+        waitStrategy.await(Gate.NOT_EMPTY, () -> (taken[0] = poll()) != null, true, unit.toNanos(timeout));
+        return cast(taken[0]);
+    }
+
+    @Override
+    public void putAll(List<? extends T> items) throws InterruptedException {
+        items.forEach(item -> Objects.requireNonNull(item, "item"));
+
+        int[] published = {0};
+        BooleanSupplier publish = () -> {
+            int run = publishRun(items, published[0]);
+            if (run == 0) {
+                return false;
+            }
+            published[0] += run;
+            waitStrategy.signal(Gate.NOT_EMPTY, run);
+            return true;
+        };
+
+        while (published[0] < items.size()) {
+            if (!publish.getAsBoolean()) {
+                waitStrategy.await(Gate.NOT_FULL, publish, false, 0);
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> sink, int max) {
+        Objects.requireNonNull(sink, "sink");
+
+        int drained = 0;
+        int run;
+        while (drained < max && (run = consumeRun(sink, max - drained)) > 0) {
+            drained += run;
+        }
+        if (drained > 0) {
+            waitStrategy.signal(Gate.NOT_FULL, drained);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, limit));
+    }
+
+    protected void signalNotEmpty() {
+        waitStrategy.signal(Gate.NOT_EMPTY, 1);
+    }
+
+    protected void signalNotFull() {
+        waitStrategy.signal(Gate.NOT_FULL, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object item) {
+        return (T) item;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Base of the strategies that never sleep on a condition: they keep retrying with an increasing
+ * back-off, so the other side never has to signal them.
+ */
+abstract class BackoffWaitStrategy implements WaitStrategy {
+
+    protected abstract void idle(int attempt);
+
+    @Override
+    public boolean await(Gate gate, BooleanSupplier attempt, boolean timed, long nanos) throws InterruptedException {
+        long deadline = timed ? System.nanoTime() + nanos : 0;
+        for (int i = 0; !attempt.getAsBoolean(); i++) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (timed && System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            idle(i);
+        }
+        return true;
+    }
+
+    @Override
+    public void signal(Gate gate, int count) {
+    }
+}
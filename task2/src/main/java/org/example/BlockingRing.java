@@ -0,0 +1,46 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded FIFO handoff between threads. {@code put} and {@code take} block while the ring is
+ * full or empty; {@code offer} and {@code poll} return immediately or after a timeout instead.
+ * The batch operations move a run of items per step and wake waiters once per run.
+ */
+public interface BlockingRing<T> {
+
+    void put(T item) throws InterruptedException;
+
+    T take() throws InterruptedException;
+
+    boolean offer(T item);
+
+    boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Returns the oldest item, or {@code null} if the ring is empty.
+     */
+    T poll();
+
+    T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Puts every item in order, blocking while the ring is full. Items are published in as few
+     * runs as free space allows, so a batch larger than the ring is handed over in pieces.
+     */
+    void putAll(List<? extends T> items) throws InterruptedException;
+
+    /**
+     * Moves up to {@code max} available items into {@code sink} without blocking and returns how
+     * many were moved.
+     */
+    int drainTo(Collection<? super T> sink, int max);
+
+    int size();
+
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
@@ -0,0 +1,94 @@
+package org.example;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spins briefly, then sleeps on a condition until signalled. Producers and consumers wait on
+ * separate not-full and not-empty conditions, and a signal only takes the lock when a thread is
+ * actually parked on that side, so there is no thundering herd and no cost when nobody waits.
+ */
+public class BlockingWaitStrategy implements WaitStrategy {
+    public static final int DEFAULT_SPIN_TRIES = 100;
+
+    private final int spinTries;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private volatile int waitingConsumers;
+    private volatile int waitingProducers;
+
+    public BlockingWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES);
+    }
+
+    public BlockingWaitStrategy(int spinTries) {
+        this.spinTries = spinTries;
+    }
+
+    @Override
+    public boolean await(Gate gate, BooleanSupplier attempt, boolean timed, long nanos) throws InterruptedException {
+        for (int i = 0; i < spinTries; i++) {
+            if (attempt.getAsBoolean()) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+
+        boolean producer = gate == Gate.NOT_FULL;
+        Condition condition = producer ? notFull : notEmpty;
+        lock.lockInterruptibly();
+        try {
+            if (producer) {
+                waitingProducers++;
+            } else {
+                waitingConsumers++;
+            }
+            try {
+                VarHandle.fullFence();
+                while (!attempt.getAsBoolean()) {
+                    if (!timed) {
+                        condition.await();
+                    } else if (nanos <= 0) {
+                        return false;
+                    } else {
+                        nanos = condition.awaitNanos(nanos);
+                    }
+                }
+                return true;
+            } finally {
+                if (producer) {
+                    waitingProducers--;
+                } else {
+                    waitingConsumers--;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The fences on both sides order "publish slot, then check waiters" against "register waiter, then re-check slot".
+    @Override
+    public void signal(Gate gate, int count) {
+        VarHandle.fullFence();
+        boolean producer = gate == Gate.NOT_FULL;
+        if ((producer ? waitingProducers : waitingConsumers) == 0) {
+            return;
+        }
+
+        Condition condition = producer ? notFull : notEmpty;
+        lock.lock();
+        try {
+            if (count == 1) {
+                condition.signal();
+            } else {
+                condition.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+/**
+ * Spins on the CPU until the ring is ready. Lowest latency, but keeps a core busy for every
+ * waiting thread, so it only suits pipelines with a dedicated core per thread.
+ */
+public class BusySpinWaitStrategy extends BackoffWaitStrategy {
+
+    @Override
+    protected void idle(int attempt) {
+        Thread.onSpinWait();
+    }
+}
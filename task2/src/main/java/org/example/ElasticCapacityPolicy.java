@@ -0,0 +1,73 @@
+package org.example;
+
+/**
+ * How an {@link ElasticRingBuffer} sizes itself. Capacity moves in steps of {@code chunkSize}
+ * between {@code minChunks} and {@code maxChunks} chunks. It grows by one chunk once producers
+ * have found the ring full {@code growAfter} times in a row, and shrinks by one chunk once
+ * {@code shrinkAfter} consecutive samples, taken whenever consumers finish a chunk, saw occupancy
+ * below {@code shrinkBelow} of capacity.
+ */
+public final class ElasticCapacityPolicy {
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+    public static final int DEFAULT_GROW_AFTER = 16;
+    public static final double DEFAULT_SHRINK_BELOW = 0.25;
+    public static final int DEFAULT_SHRINK_AFTER = 64;
+
+    private final int chunkSize;
+    private final int minChunks;
+    private final int maxChunks;
+    private final int growAfter;
+    private final double shrinkBelow;
+    private final int shrinkAfter;
+
+    public ElasticCapacityPolicy(int chunkSize, int minChunks, int maxChunks, int growAfter, double shrinkBelow,
+                                 int shrinkAfter) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a positive power of two");
+        }
+        if (minChunks <= 0 || maxChunks < minChunks) {
+            throw new IllegalArgumentException("Chunk bounds must satisfy 0 < minChunks <= maxChunks");
+        }
+        if ((long) chunkSize * maxChunks > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Maximum capacity must fit in an int");
+        }
+        if (growAfter <= 0 || shrinkAfter <= 0 || shrinkBelow < 0 || shrinkBelow >= 1) {
+            throw new IllegalArgumentException("Grow and shrink thresholds must be positive, shrinkBelow in [0, 1)");
+        }
+        this.chunkSize = chunkSize;
+        this.minChunks = minChunks;
+        this.maxChunks = maxChunks;
+        this.growAfter = growAfter;
+        this.shrinkBelow = shrinkBelow;
+        this.shrinkAfter = shrinkAfter;
+    }
+
+    public static ElasticCapacityPolicy between(int chunkSize, int minChunks, int maxChunks) {
+        return new ElasticCapacityPolicy(chunkSize, minChunks, maxChunks, DEFAULT_GROW_AFTER, DEFAULT_SHRINK_BELOW,
+                DEFAULT_SHRINK_AFTER);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public int getMinChunks() {
+        return minChunks;
+    }
+
+    public int getMaxChunks() {
+        return maxChunks;
+    }
+
+    public int getGrowAfter() {
+        return growAfter;
+    }
+
+    public double getShrinkBelow() {
+        return shrinkBelow;
+    }
+
+    public int getShrinkAfter() {
+        return shrinkAfter;
+    }
+}
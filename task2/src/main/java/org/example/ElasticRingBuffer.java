@@ -0,0 +1,302 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Multi-producer, multi-consumer ring whose capacity follows the load. Positions are spread over
+ * a linked chain of fixed-size chunks: producers splice a new chunk onto the end with one CAS
+ * when they cross into it, and a chunk becomes garbage as soon as consumers have passed it, so
+ * memory tracks occupancy rather than peak capacity. The capacity bound itself grows and shrinks
+ * by whole chunks as described by an {@link ElasticCapacityPolicy}; resizing is a single CAS on
+ * that bound, so it never stops concurrent {@code put}/{@code take}. Unlike the fixed rings, the
+ * ring holds exactly its current capacity. {@code null} items are rejected.
+ */
+public class ElasticRingBuffer<T> implements BlockingRing<T> {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle NEXT;
+    private static final VarHandle HEAD_CHUNK;
+    private static final VarHandle TAIL_CHUNK;
+    private static final VarHandle CAPACITY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            NEXT = lookup.findVarHandle(Chunk.class, "next", Chunk.class);
+            HEAD_CHUNK = lookup.findVarHandle(ElasticRingBuffer.class, "headChunk", Chunk.class);
+            TAIL_CHUNK = lookup.findVarHandle(ElasticRingBuffer.class, "tailChunk", Chunk.class);
+            CAPACITY = lookup.findVarHandle(ElasticRingBuffer.class, "capacity", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ElasticCapacityPolicy policy;
+    private final int shift;
+    private final int chunkMask;
+    private final Sequence head = new Sequence(0);
+    private final Sequence tail = new Sequence(0);
+    private final AtomicInteger fullHits = new AtomicInteger();
+    private final AtomicInteger lowSamples = new AtomicInteger();
+    private final WaitStrategy waitStrategy;
+    private volatile Chunk headChunk;
+    private volatile Chunk tailChunk;
+    private volatile int capacity;
+
+    private static final class Chunk {
+        private final long index;
+        private final Object[] slots;
+        private volatile Chunk next;
+
+        private Chunk(long index, int size) {
+            this.index = index;
+            this.slots = new Object[size];
+        }
+    }
+
+    public ElasticRingBuffer(ElasticCapacityPolicy policy) {
+        this(policy, BlockingWaitStrategy::new);
+    }
+
+    public ElasticRingBuffer(ElasticCapacityPolicy policy, Supplier<? extends WaitStrategy> waitStrategy) {
+        this.policy = policy;
+        this.shift = Integer.numberOfTrailingZeros(policy.getChunkSize());
+        this.chunkMask = policy.getChunkSize() - 1;
+        this.capacity = policy.getChunkSize() * policy.getMinChunks();
+        this.waitStrategy = waitStrategy.get();
+        this.headChunk = new Chunk(0, policy.getChunkSize());
+        this.tailChunk = headChunk;
+    }
+
+    @Override
+    public void put(T item) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        if (!offer(item)) {
+            waitStrategy.await(Gate.NOT_FULL, () -> offer(item), false, 0);
+        }
+    }
+
+    @Override
+    public boolean offer(T item) {
+        if (!tryOffer(item)) {
+            return false;
+        }
+        waitStrategy.signal(Gate.NOT_EMPTY, 1);
+        return true;
+    }
+
+    @Override
+    public boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(item, "item");
+        return offer(item) || waitStrategy.await(Gate.NOT_FULL, () -> offer(item), true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public T take() throws InterruptedException {
+        T item = poll();
+        if (item != null) {
+            return item;
+        }
+
+        Object[] taken = new Object[1];
+        waitStrategy.await(Gate.NOT_EMPTY, () -> (taken[0] = poll()) != null, false, 0);
+        return cast(taken[0]);
+    }
+
+    @Override
+    public T poll() {
+        T item = tryPoll();
+        if (item != null) {
+            waitStrategy.signal(Gate.NOT_FULL, 1);
+        }
+        return item;
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        T item = poll();
+        if (item != null) {
+            return item;
+        }
+
+        Object[] taken = new Object[1];
+        waitStrategy.await(Gate.NOT_EMPTY, () -> (taken[0] = poll()) != null, true, unit.toNanos(timeout));
+        return cast(taken[0]);
+    }
+
+    @Override
+    public void putAll(List<? extends T> items) throws InterruptedException {
+        items.forEach(item -> Objects.requireNonNull(item, "item"));
+
+        int[] published = {0};
+        BooleanSupplier publish = () -> {
+            int run = 0;
+            while (published[0] + run < items.size() && tryOffer(items.get(published[0] + run))) {
+                run++;
+            }
+            if (run == 0) {
+                return false;
+            }
+            published[0] += run;
+            waitStrategy.signal(Gate.NOT_EMPTY, run);
+            return true;
+        };
+
+        while (published[0] < items.size()) {
+            if (!publish.getAsBoolean()) {
+                waitStrategy.await(Gate.NOT_FULL, publish, false, 0);
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super T> sink, int max) {
+        Objects.requireNonNull(sink, "sink");
+
+        int drained = 0;
+        T item;
+        while (drained < max && (item = tryPoll()) != null) {
+            sink.add(item);
+            drained++;
+        }
+        if (drained > 0) {
+            waitStrategy.signal(Gate.NOT_FULL, drained);
+        }
+        return drained;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Number of chunks currently reachable from the head, which bounds the memory in use.
+     */
+    public int getChunkCount() {
+        int count = 0;
+        for (Chunk chunk = headChunk; chunk != null; chunk = chunk.next) {
+            count++;
+        }
+        return count;
+    }
+
+    private boolean tryOffer(T item) {
+        Objects.requireNonNull(item, "item");
+        while (true) {
+            long position = tail.get();
+            if (position - head.get() >= capacity) {
+                if (tryGrow()) {
+                    continue;
+                }
+                return false;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                Chunk chunk = chunkFor(position >>> shift, true);
+                advance(TAIL_CHUNK, chunk);
+                SLOTS.setRelease(chunk.slots, (int) position & chunkMask, item);
+                fullHits.set(0);
+                return true;
+            }
+        }
+    }
+
+    // Items are consumed in claim order: a claimed slot whose producer has not stored yet reads as empty.
+    @SuppressWarnings("unchecked")
+    private T tryPoll() {
+        while (true) {
+            long position = head.get();
+            Chunk chunk = chunkFor(position >>> shift, false);
+            int offset = (int) position & chunkMask;
+            Object item = chunk == null ? null : SLOTS.getAcquire(chunk.slots, offset);
+
+            if (item == null) {
+                if (head.get() == position) {
+                    return null;
+                }
+            } else if (head.compareAndSet(position, position + 1)) {
+                chunk.slots[offset] = null;
+                advance(HEAD_CHUNK, chunk);
+                if (offset == chunkMask) {
+                    Chunk next = chunk.next;
+                    if (next != null) {
+                        advance(HEAD_CHUNK, next);
+                    }
+                    sampleOccupancy();
+                }
+                return (T) item;
+            }
+        }
+    }
+
+    // Walks forward from the closest known chunk; producers splice missing chunks on with one CAS each.
+    private Chunk chunkFor(long index, boolean create) {
+        Chunk chunk = tailChunk;
+        if (chunk.index > index) {
+            chunk = headChunk;
+        }
+        while (chunk.index < index) {
+            Chunk next = chunk.next;
+            if (next == null) {
+                if (!create) {
+                    return null;
+                }
+                Chunk fresh = new Chunk(chunk.index + 1, chunkMask + 1);
+                next = NEXT.compareAndSet(chunk, null, fresh) ? fresh : chunk.next;
+            }
+            chunk = next;
+        }
+        return chunk;
+    }
+
+    private void advance(VarHandle hint, Chunk chunk) {
+        Chunk current;
+        while ((current = (Chunk) hint.getVolatile(this)).index < chunk.index) {
+            if (hint.compareAndSet(this, current, chunk)) {
+                return;
+            }
+        }
+    }
+
+    private boolean tryGrow() {
+        int current = capacity;
+        int max = policy.getChunkSize() * policy.getMaxChunks();
+        if (current >= max || fullHits.incrementAndGet() < policy.getGrowAfter()) {
+            return false;
+        }
+        fullHits.set(0);
+        lowSamples.set(0);
+        CAPACITY.compareAndSet(this, current, current + policy.getChunkSize());
+        return true;
+    }
+
+    private void sampleOccupancy() {
+        int current = capacity;
+        if (current <= policy.getChunkSize() * policy.getMinChunks()) {
+            return;
+        }
+        if (size() >= current * policy.getShrinkBelow()) {
+            lowSamples.set(0);
+        } else if (lowSamples.incrementAndGet() >= policy.getShrinkAfter()) {
+            lowSamples.set(0);
+            CAPACITY.compareAndSet(this, current, current - policy.getChunkSize());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object item) {
+        return (T) item;
+    }
+}
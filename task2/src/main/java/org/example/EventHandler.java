@@ -0,0 +1,11 @@
+package org.example;
+
+@FunctionalInterface
+public interface EventHandler<E> {
+
+    /**
+     * Processes the event in slot {@code sequence} in place. {@code endOfBatch} is {@code true} for
+     * the last event currently available to this stage, a natural point to flush batched work.
+     */
+    void onEvent(E event, long sequence, boolean endOfBatch) throws Exception;
+}
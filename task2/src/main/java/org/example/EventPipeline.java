@@ -0,0 +1,358 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Disruptor-style pipeline over one ring of pre-allocated, mutable events. Producers claim a
+ * sequence, fill the event in that slot and publish it; every stage then processes the same
+ * slot in place once the stages it is gated on have passed it, so a message crosses the whole
+ * stage graph without being copied or enqueued again. Producers wrap around only after the last
+ * stages have released a slot.
+ *
+ * <p>Stages are declared before {@link #start()}: {@link #handleEventsWith} adds stages gated on
+ * the producers, {@link StageGroup#then} chains stages behind a group, and {@link #after} joins
+ * several groups so the next stage waits for all of them (fan-in). Handlers in one group run in
+ * parallel on their own threads (fan-out). Any number of threads may publish.
+ */
+public class EventPipeline<E> implements AutoCloseable {
+    public static final long CLOSE_PUBLISH_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final Logger LOGGER = Logger.getLogger(EventPipeline.class.getName());
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final Object[] events;
+    private final int[] available;
+    private final int mask;
+    private final int shift;
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence gatingCache = new Sequence(-1);
+    private final Supplier<? extends WaitStrategy> waitStrategyFactory;
+    private final WaitStrategy producerWait;
+    private final List<Stage> stages = new ArrayList<>();
+    private final Set<Stage> lastStages = new LinkedHashSet<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private Sequence[] gatingSequences = new Sequence[0];
+    private List<Stage> entryStages = List.of();
+    private volatile boolean started;
+    private volatile boolean closed;
+
+    public EventPipeline(Supplier<? extends E> eventFactory, int size) {
+        this(eventFactory, size, BlockingWaitStrategy::new);
+    }
+
+    /**
+     * Creates a ring of {@code size} events, rounded up to a power of two, all created up front
+     * by {@code eventFactory}. Each stage and the producers get their own wait strategy.
+     */
+    public EventPipeline(Supplier<? extends E> eventFactory, int size, Supplier<? extends WaitStrategy> waitStrategy) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+
+        int length = Integer.highestOneBit(size);
+        if (length < size) {
+            length <<= 1;
+        }
+
+        this.events = new Object[length];
+        this.available = new int[length];
+        this.mask = length - 1;
+        this.shift = Integer.numberOfTrailingZeros(length);
+        this.waitStrategyFactory = waitStrategy;
+        this.producerWait = waitStrategy.get();
+        for (int i = 0; i < length; i++) {
+            events[i] = eventFactory.get();
+            available[i] = -1;
+        }
+    }
+
+    @SafeVarargs
+    public final StageGroup handleEventsWith(EventHandler<? super E>... handlers) {
+        List<EventHandler<? super E>> list = new ArrayList<>(handlers.length);
+        for (EventHandler<? super E> handler : handlers) {
+            list.add(handler);
+        }
+        return handleEventsWith(list);
+    }
+
+    public StageGroup handleEventsWith(List<? extends EventHandler<? super E>> handlers) {
+        return addStages(List.of(), handlers);
+    }
+
+    /**
+     * Joins groups so that stages added with {@link StageGroup#then} wait for all of them.
+     */
+    @SafeVarargs
+    public final StageGroup after(StageGroup... groups) {
+        List<Stage> joined = new ArrayList<>();
+        for (StageGroup group : groups) {
+            joined.addAll(group.stages);
+        }
+        return new StageGroup(joined);
+    }
+
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline already started");
+        }
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("Pipeline has no stages");
+        }
+
+        gatingSequences = lastStages.stream().map(stage -> stage.sequence).toArray(Sequence[]::new);
+        entryStages = stages.stream().filter(stage -> stage.dependencies.isEmpty()).toList();
+        for (int i = 0; i < stages.size(); i++) {
+            Thread thread = new Thread(stages.get(i), "pipeline-stage-" + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        started = true;
+        threads.forEach(Thread::start);
+    }
+
+    /**
+     * Claims the next slot, waiting while the last stages have not released it yet. The caller
+     * must fill {@link #get} for the returned sequence and then {@link #publish} it.
+     */
+    public long next() throws InterruptedException {
+        if (!started) {
+            throw new IllegalStateException("Pipeline not started");
+        }
+
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Pipeline is closed");
+            }
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - events.length;
+
+            if (wrapPoint > gatingCache.get()) {
+                long minimum = minimumSequence(gatingSequences, current);
+                if (wrapPoint > minimum) {
+                    producerWait.await(Gate.NOT_FULL,
+                            () -> closed || wrapPoint <= minimumSequence(gatingSequences, current), false, 0);
+                    continue;
+                }
+                gatingCache.setRelease(minimum);
+            }
+
+            if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) events[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> shift));
+        for (Stage stage : entryStages) {
+            stage.waitStrategy.signal(Gate.NOT_EMPTY, 1);
+        }
+    }
+
+    /**
+     * Claims a slot, lets {@code translator} fill the event from {@code argument} and publishes it.
+     */
+    public <A> void publishEvent(BiConsumer<? super E, ? super A> translator, A argument) throws InterruptedException {
+        long sequence = next();
+        try {
+            translator.accept(get(sequence), argument);
+        } finally {
+            publish(sequence);
+        }
+    }
+
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Stops handing out slots, lets every stage finish the events published so far, then stops the
+     * stage threads. Producers get up to {@link #CLOSE_PUBLISH_GRACE_NANOS} to publish slots they
+     * already claimed; events after the first slot still unpublished by then are never processed.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!started || closed) {
+                return;
+            }
+            closed = true;
+        }
+        producerWait.signal(Gate.NOT_FULL, Integer.MAX_VALUE);
+
+        long last = cursor.get();
+        long deadline = System.nanoTime() + CLOSE_PUBLISH_GRACE_NANOS;
+        while (last >= 0 && !isPublished(last) && System.nanoTime() - deadline < 0) {
+            Thread.yield();
+        }
+        long stopAfter = highestPublished(minimumSequence(entrySequences(), last) + 1, last);
+        for (Stage stage : stages) {
+            stage.stopAfter = stopAfter;
+            stage.waitStrategy.signal(Gate.NOT_EMPTY, 1);
+        }
+
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Sequence[] entrySequences() {
+        return entryStages.stream().map(stage -> stage.sequence).toArray(Sequence[]::new);
+    }
+
+    private synchronized StageGroup addStages(List<Stage> dependencies,
+                                              List<? extends EventHandler<? super E>> handlers) {
+        if (started) {
+            throw new IllegalStateException("Stages must be added before start()");
+        }
+
+        List<Stage> added = new ArrayList<>();
+        for (EventHandler<? super E> handler : handlers) {
+            Stage stage = new Stage(handler, dependencies);
+            added.add(stage);
+            stages.add(stage);
+            lastStages.add(stage);
+        }
+        for (Stage dependency : dependencies) {
+            lastStages.remove(dependency);
+            dependency.dependents.addAll(added);
+        }
+        return new StageGroup(added);
+    }
+
+    private boolean isPublished(long sequence) {
+        return (int) AVAILABLE.getAcquire(available, (int) sequence & mask) == (int) (sequence >>> shift);
+    }
+
+    // Highest sequence from 'from' up to the cursor such that every slot in between is published.
+    private long highestPublished(long from, long upTo) {
+        for (long sequence = from; sequence <= upTo; sequence++) {
+            if (!isPublished(sequence)) {
+                return sequence - 1;
+            }
+        }
+        return upTo;
+    }
+
+    private static long minimumSequence(Sequence[] sequences, long minimum) {
+        for (Sequence sequence : sequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    public final class StageGroup {
+        private final List<Stage> stages;
+
+        private StageGroup(List<Stage> stages) {
+            this.stages = List.copyOf(stages);
+        }
+
+        /**
+         * Adds stages that only see an event after every stage of this group has processed it.
+         */
+        @SafeVarargs
+        public final StageGroup then(EventHandler<? super E>... handlers) {
+            List<EventHandler<? super E>> list = new ArrayList<>(handlers.length);
+            for (EventHandler<? super E> handler : handlers) {
+                list.add(handler);
+            }
+            return addStages(stages, list);
+        }
+    }
+
+    private final class Stage implements Runnable {
+        private final EventHandler<? super E> handler;
+        private final List<Stage> dependencies;
+        private final Sequence[] dependencySequences;
+        private final List<Stage> dependents = new ArrayList<>();
+        private final Sequence sequence = new Sequence(-1);
+        private final WaitStrategy waitStrategy = waitStrategyFactory.get();
+        private volatile long stopAfter = Long.MAX_VALUE;
+
+        private Stage(EventHandler<? super E> handler, List<Stage> dependencies) {
+            this.handler = handler;
+            this.dependencies = dependencies;
+            this.dependencySequences = dependencies.stream().map(stage -> stage.sequence).toArray(Sequence[]::new);
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            try {
+                while (next <= stopAfter) {
+                    long last = availableFrom(next);
+                    if (last < next) {
+                        long waitingFor = next;
+                        waitStrategy.await(Gate.NOT_EMPTY,
+                                () -> availableFrom(waitingFor) >= waitingFor || waitingFor > stopAfter, false, 0);
+                        continue;
+                    }
+
+                    for (long current = next; current <= last; current++) {
+                        try {
+                            handler.onEvent(get(current), current, current == last);
+                        } catch (InterruptedException e) {
+                            // The events before this one are done; the interrupted one stays unprocessed.
+                            sequence.setRelease(current - 1);
+                            signalDownstream(current - next);
+                            throw e;
+                        } catch (Exception e) {
+                            LOGGER.log(Level.SEVERE, "Stage failed on event " + current, e);
+                        }
+                    }
+                    sequence.setRelease(last);
+                    signalDownstream(last - next + 1);
+                    next = last + 1;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private long availableFrom(long next) {
+            if (dependencies.isEmpty()) {
+                long published = cursor.get();
+                return published < next ? next - 1 : highestPublished(next, published);
+            }
+            return minimumSequence(dependencySequences, Long.MAX_VALUE);
+        }
+
+        private void signalDownstream(long count) {
+            if (dependents.isEmpty()) {
+                producerWait.signal(Gate.NOT_FULL, (int) Math.min(count, Integer.MAX_VALUE));
+            }
+            for (Stage dependent : dependents) {
+                dependent.waitStrategy.signal(Gate.NOT_EMPTY, 1);
+            }
+        }
+    }
+}
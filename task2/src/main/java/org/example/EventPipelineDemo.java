@@ -0,0 +1,84 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link RingBufferDemo}'s producers, translators and reader as one {@link EventPipeline}: the
+ * translators split the events between them and rewrite each slot in place (fan-out), and the
+ * reader runs after both (fan-in), so no message is copied into a second buffer.
+ */
+public class EventPipelineDemo {
+
+    private static final Logger LOGGER = Logger.getLogger(EventPipelineDemo.class.getName());
+
+    public static final int PRODUCERS = 5;
+    public static final int TRANSLATORS = 2;
+    public static final int MESSAGES = 100;
+
+    static final class MessageEvent {
+        private int producer;
+        private long generatedAt;
+        private int translator;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        EventPipeline<MessageEvent> pipeline = new EventPipeline<>(MessageEvent::new, 16);
+        CountDownLatch read = new CountDownLatch(MESSAGES);
+
+        List<EventHandler<MessageEvent>> translators = new ArrayList<>(TRANSLATORS);
+        for (int i = 0; i < TRANSLATORS; i++) {
+            int id = i + 1;
+            translators.add((event, sequence, endOfBatch) -> {
+                if (sequence % TRANSLATORS == id - 1) {
+                    event.translator = id;
+                }
+            });
+        }
+
+        pipeline.handleEventsWith(translators).then((event, sequence, endOfBatch) -> {
+            if (read.getCount() > 0) {
+                System.out.println("MAIN (" + (MESSAGES - read.getCount() + 1) + "/" + MESSAGES + "): Thread #"
+                        + event.translator + " translated message [Thread #" + event.producer
+                        + " generated message " + event.generatedAt + "]");
+                read.countDown();
+            }
+        });
+        pipeline.start();
+
+        for (int i = 1; i <= PRODUCERS; i++) {
+            startProducer(i, pipeline);
+        }
+
+        System.out.println("Main: Starting to read data...");
+        try {
+            read.await();
+        } catch (InterruptedException e) {
+            LOGGER.log(Level.SEVERE, "Main thread interrupted", e);
+            Thread.currentThread().interrupt();
+        }
+
+        System.out.println("Main: Work finished. Daemons are stopping.");
+    }
+
+    private static void startProducer(int id, EventPipeline<MessageEvent> pipeline) {
+        Thread producer = new Thread(() -> {
+            try {
+                while (true) {
+                    pipeline.publishEvent((event, producerId) -> {
+                        event.producer = producerId;
+                        event.generatedAt = System.nanoTime();
+                    }, id);
+                    Thread.sleep(100);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.setDaemon(true);
+        producer.start();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Multi-producer, multi-consumer ring of primitive {@code long}s: the same per-slot sequence
+ * protocol as {@link MpmcRingBuffer}, but values live in a {@code long[]}, so nothing is boxed and
+ * no call allocates, including the waiting paths. Like the other rings, capacity {@code n} holds
+ * at most {@code n - 1} values.
+ */
+public class LongRingBuffer {
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] values;
+    private final long[] sequences;
+    private final int mask;
+    private final int limit;
+    private final Sequence head = new Sequence(0);
+    private final Sequence tail = new Sequence(0);
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier readable = this::isReadable;
+    private final BooleanSupplier writable = this::isWritable;
+
+    public LongRingBuffer(int capacity) {
+        this(capacity, BlockingWaitStrategy::new);
+    }
+
+    public LongRingBuffer(int capacity, Supplier<? extends WaitStrategy> waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+
+        int length = Integer.highestOneBit(Math.max(1, capacity - 1));
+        if (length < capacity - 1) {
+            length <<= 1;
+        }
+
+        this.values = new long[length];
+        this.sequences = new long[length];
+        this.mask = length - 1;
+        this.limit = capacity - 1;
+        this.waitStrategy = waitStrategy.get();
+        for (int i = 0; i < length; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    public void put(long value) throws InterruptedException {
+        while (!offer(value)) {
+            waitStrategy.await(Gate.NOT_FULL, writable, false, 0);
+        }
+    }
+
+    public boolean offer(long value) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = (long) SEQUENCES.getAcquire(sequences, index) - position;
+
+            if (available == 0) {
+                if (position - head.get() >= limit) {
+                    return false;
+                }
+                if (tail.compareAndSet(position, position + 1)) {
+                    values[index] = value;
+                    SEQUENCES.setRelease(sequences, index, position + 1);
+                    waitStrategy.signal(Gate.NOT_EMPTY, 1);
+                    return true;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+        }
+    }
+
+    public long take() throws InterruptedException {
+        long position;
+        while ((position = claimReadable()) < 0) {
+            waitStrategy.await(Gate.NOT_EMPTY, readable, false, 0);
+        }
+
+        long value = release(position);
+        waitStrategy.signal(Gate.NOT_FULL, 1);
+        return value;
+    }
+
+    /**
+     * Returns the oldest value, or {@code valueIfEmpty} if the ring is empty.
+     */
+    public long poll(long valueIfEmpty) {
+        long position = claimReadable();
+        if (position < 0) {
+            return valueIfEmpty;
+        }
+
+        long value = release(position);
+        waitStrategy.signal(Gate.NOT_FULL, 1);
+        return value;
+    }
+
+    /**
+     * Hands up to {@code max} available values to {@code sink} without blocking and returns how
+     * many were consumed.
+     */
+    public int drainTo(LongConsumer sink, int max) {
+        int drained = 0;
+        long position;
+        while (drained < max && (position = claimReadable()) >= 0) {
+            sink.accept(release(position));
+            drained++;
+        }
+        if (drained > 0) {
+            waitStrategy.signal(Gate.NOT_FULL, drained);
+        }
+        return drained;
+    }
+
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, limit));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // Claims the head slot if it is published and returns its position, or -1 if the ring is empty.
+    private long claimReadable() {
+        while (true) {
+            long position = head.get();
+            long available = (long) SEQUENCES.getAcquire(sequences, (int) position & mask) - (position + 1);
+
+            if (available == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    return position;
+                }
+            } else if (available < 0) {
+                return -1;
+            }
+        }
+    }
+
+    private long release(long position) {
+        int index = (int) position & mask;
+        long value = values[index];
+        SEQUENCES.setRelease(sequences, index, position + mask + 1);
+        return value;
+    }
+
+    private boolean isReadable() {
+        long position = head.get();
+        return (long) SEQUENCES.getAcquire(sequences, (int) position & mask) == position + 1;
+    }
+
+    private boolean isWritable() {
+        long position = tail.get();
+        return position - head.get() < limit
+                && (long) SEQUENCES.getAcquire(sequences, (int) position & mask) == position;
+    }
+}
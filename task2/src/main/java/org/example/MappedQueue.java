@@ -0,0 +1,496 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Durable queue of length-prefixed byte records in rolling memory-mapped segment files. Records
+ * survive a JVM restart, and because readers only rely on what is in the files, another process
+ * on the same host can tail the queue with {@link #openReader} while this one appends.
+ *
+ * <p>Each record is a 4-byte header followed by its payload, padded to 4 bytes. The header holds
+ * {@code length + 1} and is written last with a release store, so a reader never sees a record
+ * before its payload and a zero header always means "nothing here yet". Appenders copy their
+ * payloads concurrently but publish headers strictly in the order they claimed space, so the
+ * published records always form a prefix without gaps, for readers and for recovery alike. A
+ * record that does not fit ends the segment with an end marker and goes to the next segment.
+ * Every named reader keeps its position in a small mapped file of its own, so it resumes where it
+ * stopped after a crash; segments every reader has moved past are deleted when the writer rolls.
+ *
+ * <p>Appends only touch the page cache. A background flusher forces dirty segments every
+ * {@code flushIntervalMillis}, so durability against a machine crash is batched rather than paid
+ * per record.
+ */
+public class MappedQueue implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 1 << 24;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 10;
+    public static final int HEADER_LENGTH = 4;
+
+    private static final int END_OF_SEGMENT = -1;
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final String SEGMENT_PREFIX = "queue-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String READER_SUFFIX = ".reader";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ConcurrentLinkedQueue<MappedByteBuffer> unflushed = new ConcurrentLinkedQueue<>();
+    // Position right after the last published record; the next appender in claim order publishes there.
+    private final Sequence published = new Sequence(0);
+    private final Thread flusher;
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+    private int writeOffset;
+    private volatile boolean closed;
+
+    private MappedQueue(Path directory, int segmentSize, long flushIntervalMillis) throws IOException {
+        if (segmentSize < 64 || segmentSize % HEADER_LENGTH != 0) {
+            throw new IllegalArgumentException("Segment size must be a multiple of 4 and at least 64 bytes");
+        }
+        if (flushIntervalMillis < 0) {
+            throw new IllegalArgumentException("Flush interval must not be negative");
+        }
+
+        Files.createDirectories(directory);
+        List<Long> existing = segmentIndexes(directory);
+
+        this.directory = directory;
+        this.segmentSize = existing.isEmpty() ? segmentSize : (int) Files.size(segmentPath(directory, existing.getLast()));
+        if (existing.isEmpty()) {
+            openSegment(0);
+        } else {
+            recover(existing);
+        }
+        published.setRelease(position(segmentIndex, writeOffset));
+
+        if (flushIntervalMillis > 0) {
+            flusher = new Thread(() -> flushPeriodically(flushIntervalMillis), "mapped-queue-flusher");
+            flusher.setDaemon(true);
+        } else {
+            flusher = null;
+        }
+    }
+
+    public static MappedQueue open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens or creates the queue in {@code directory}. An existing queue keeps its segment size
+     * and continues after its last complete record. A {@code flushIntervalMillis} of 0 disables
+     * the background flusher, leaving {@link #flush()} to the caller.
+     */
+    public static MappedQueue open(Path directory, int segmentSize, long flushIntervalMillis) throws IOException {
+        MappedQueue queue = new MappedQueue(directory, segmentSize, flushIntervalMillis);
+        if (queue.flusher != null) {
+            queue.flusher.start();
+        }
+        return queue;
+    }
+
+    /**
+     * Opens a reader on a queue written by this or another process, without opening it for
+     * writing. The reader resumes from the position last stored under {@code name}.
+     */
+    public static Reader openReader(Path directory, String name) throws IOException {
+        List<Long> existing = segmentIndexes(directory);
+        if (existing.isEmpty()) {
+            throw new NoSuchFileException(directory.toString(), null, "No queue segments");
+        }
+        return new Reader(directory, name, (int) Files.size(segmentPath(directory, existing.getFirst())));
+    }
+
+    public Reader reader(String name) throws IOException {
+        return new Reader(directory, name, segmentSize);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public int maxRecordLength() {
+        return segmentSize - 2 * HEADER_LENGTH;
+    }
+
+    public long append(byte[] record) {
+        return append(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * Appends the remaining bytes of {@code record} and returns the record's position once it is
+     * visible to readers. Safe to call from any number of threads: only the space is claimed under
+     * a lock, the copy is not, and the header waits for the appenders that claimed space earlier.
+     */
+    public long append(ByteBuffer record) {
+        int length = record.remaining();
+        if (length > maxRecordLength()) {
+            throw new IllegalArgumentException("Record length must be at most " + maxRecordLength());
+        }
+
+        int recordLength = align(HEADER_LENGTH + length);
+        MappedByteBuffer target;
+        MappedByteBuffer rolled = null;
+        long start;
+        long index;
+        int offset;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Queue is closed");
+            }
+            start = position(segmentIndex, writeOffset);
+            if (writeOffset + recordLength + HEADER_LENGTH > segmentSize) {
+                rolled = roll();
+            }
+            target = segment;
+            index = segmentIndex;
+            offset = writeOffset;
+            writeOffset += recordLength;
+        } finally {
+            appendLock.unlock();
+        }
+
+        target.put(offset + HEADER_LENGTH, record, record.position(), length);
+
+        awaitTurn(start);
+        if (rolled != null) {
+            // The end marker takes its turn too, so a segment never ends before its last record.
+            INTS.setRelease(rolled, offsetOf(start), END_OF_SEGMENT);
+            unflushed.add(rolled);
+        }
+        INTS.setRelease(target, offset, length + 1);
+        published.setRelease(position(index, offset + recordLength));
+        return position(index, offset);
+    }
+
+    /**
+     * Forces every segment written so far to storage.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            MappedByteBuffer rolled;
+            while ((rolled = unflushed.poll()) != null) {
+                rolled.force();
+            }
+            MappedByteBuffer current = segment;
+            if (current != null) {
+                current.force();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    flusher.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+    }
+
+    private void recover(List<Long> indexes) throws IOException {
+        // roll() opens the next segment before the end marker is published, so a crash in between leaves
+        // an earlier segment unsealed. Seal it at its last record; nothing after that was acknowledged.
+        for (long index : indexes.subList(0, indexes.size() - 1)) {
+            MappedByteBuffer sealed = map(segmentPath(directory, index), FileChannel.MapMode.READ_WRITE, segmentSize);
+            int end = recoveredEnd(sealed);
+            if (end + HEADER_LENGTH <= segmentSize && sealed.getInt(end) != END_OF_SEGMENT) {
+                sealed.putInt(end, END_OF_SEGMENT);
+                sealed.force();
+            }
+        }
+
+        long lastIndex = indexes.getLast();
+        MappedByteBuffer last = map(segmentPath(directory, lastIndex), FileChannel.MapMode.READ_WRITE, segmentSize);
+        int offset = recoveredEnd(last);
+
+        segment = last;
+        segmentIndex = lastIndex;
+        writeOffset = offset;
+        if (offset + HEADER_LENGTH <= segmentSize && last.getInt(offset) == END_OF_SEGMENT) {
+            roll();
+        } else {
+            // Headers are published in claim order, so nothing after the first unpublished record was
+            // ever acknowledged. Clear the torn tail so no stale header reads as committed.
+            for (int i = offset; i < segmentSize; i += HEADER_LENGTH) {
+                last.putInt(i, 0);
+            }
+        }
+        clampReaders(position(segmentIndex, writeOffset));
+    }
+
+    private int recoveredEnd(MappedByteBuffer segment) {
+        int offset = 0;
+        int header;
+        while (offset + HEADER_LENGTH <= segmentSize && (header = segment.getInt(offset)) > 0) {
+            offset += align(HEADER_LENGTH + header - 1);
+        }
+        return offset;
+    }
+
+    // A reader position persisted beyond the recovered end would skip whatever is appended next.
+    private void clampReaders(long end) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path reader : files.filter(path -> path.getFileName().toString().endsWith(READER_SUFFIX)).toList()) {
+                MappedByteBuffer index = map(reader, FileChannel.MapMode.READ_WRITE, Long.BYTES);
+                if ((long) LONGS.getAcquire(index, 0) > end) {
+                    LONGS.setRelease(index, 0, end);
+                    index.force();
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens the next segment and returns the previous one. Its end marker is left to the caller.
+     */
+    private MappedByteBuffer roll() {
+        MappedByteBuffer previous = segment;
+        try {
+            openSegment(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleteConsumedSegments();
+        return previous;
+    }
+
+    private void awaitTurn(long start) {
+        for (int spins = 0; published.getAcquire() != start; spins++) {
+            if (spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private void openSegment(long index) throws IOException {
+        segment = map(segmentPath(directory, index), FileChannel.MapMode.READ_WRITE, segmentSize);
+        segmentIndex = index;
+        writeOffset = 0;
+    }
+
+    // Segments are only deleted once every known reader has moved past them.
+    private void deleteConsumedSegments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> readers = files.filter(path -> path.getFileName().toString().endsWith(READER_SUFFIX)).toList();
+            if (readers.isEmpty()) {
+                return;
+            }
+
+            long oldestNeeded = segmentIndex;
+            for (Path reader : readers) {
+                ByteBuffer position = ByteBuffer.wrap(Files.readAllBytes(reader)).order(ByteOrder.nativeOrder());
+                oldestNeeded = Math.min(oldestNeeded, position.remaining() >= Long.BYTES ? segmentOf(position.getLong(0)) : 0);
+            }
+            for (long index : segmentIndexes(directory)) {
+                if (index < oldestNeeded) {
+                    Files.deleteIfExists(segmentPath(directory, index));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Stopped by close() through the closed flag and an unpark, never by an interrupt.
+    private void flushPeriodically(long intervalMillis) {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        while (!closed) {
+            LockSupport.parkNanos(this, intervalNanos);
+            if (!closed) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * One named consumer of the queue. Not thread-safe: each reader belongs to one thread.
+     */
+    public static final class Reader implements AutoCloseable {
+        private final Path directory;
+        private final int segmentSize;
+        private final MappedByteBuffer index;
+        private final WaitStrategy waitStrategy = new ParkingWaitStrategy();
+        private final BooleanSupplier readable = this::isReadable;
+        private MappedByteBuffer segment;
+        private long segmentIndex;
+        private int offset;
+
+        private Reader(Path directory, String name, int segmentSize) throws IOException {
+            this.directory = directory;
+            this.segmentSize = segmentSize;
+            Path indexPath = directory.resolve(name + READER_SUFFIX);
+            boolean resume = Files.exists(indexPath);
+            this.index = map(indexPath, FileChannel.MapMode.READ_WRITE, Long.BYTES);
+
+            if (resume) {
+                long position = (long) LONGS.getAcquire(index, 0);
+                openSegment(segmentOf(position), offsetOf(position));
+            } else {
+                openSegment(segmentIndexes(directory).getFirst(), 0);
+                storePosition();
+            }
+        }
+
+        /**
+         * Hands up to {@code maxRecords} records to {@code handler} as read-only views in native
+         * byte order, without blocking, then stores the new position. A record is delivered again after a crash if the position was
+         * not stored yet, so handlers should be idempotent.
+         */
+        public int poll(RecordRingBuffer.RecordHandler handler, int maxRecords) {
+            int records = 0;
+            while (records < maxRecords) {
+                int header = (int) INTS.getAcquire(segment, offset);
+                if (header == END_OF_SEGMENT) {
+                    if (!Files.exists(segmentPath(directory, segmentIndex + 1))) {
+                        break;
+                    }
+                    openSegment(segmentIndex + 1, 0);
+                    continue;
+                }
+                if (header == 0) {
+                    break;
+                }
+
+                handler.onRecord(segment, offset + HEADER_LENGTH, header - 1);
+                offset += align(HEADER_LENGTH + header - 1);
+                records++;
+            }
+
+            if (records > 0) {
+                storePosition();
+            }
+            return records;
+        }
+
+        /**
+         * Like {@link #poll} but waits, parking between checks, until at least one record arrives.
+         */
+        public int take(RecordRingBuffer.RecordHandler handler, int maxRecords) throws InterruptedException {
+            int records;
+            while ((records = poll(handler, maxRecords)) == 0) {
+                waitStrategy.await(Gate.NOT_EMPTY, readable, false, 0);
+            }
+            return records;
+        }
+
+        public long position() {
+            return MappedQueue.position(segmentIndex, offset);
+        }
+
+        @Override
+        public void close() {
+            index.force();
+        }
+
+        private boolean isReadable() {
+            return (int) INTS.getAcquire(segment, offset) != 0;
+        }
+
+        private void storePosition() {
+            LONGS.setRelease(index, 0, MappedQueue.position(segmentIndex, offset));
+        }
+
+        private void openSegment(long index, int offset) {
+            try {
+                this.segment = map(segmentPath(directory, index), FileChannel.MapMode.READ_ONLY, segmentSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.segmentIndex = index;
+            this.offset = offset;
+        }
+    }
+
+    private static MappedByteBuffer map(Path path, FileChannel.MapMode mode, int size) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            return buffer;
+        }
+    }
+
+    private static List<Long> segmentIndexes(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static Path segmentPath(Path directory, long index) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    static long position(long segment, int offset) {
+        return segment << 32 | offset;
+    }
+
+    static long segmentOf(long position) {
+        return position >>> 32;
+    }
+
+    static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static int align(int length) {
+        return (length + HEADER_LENGTH - 1) & -HEADER_LENGTH;
+    }
+}
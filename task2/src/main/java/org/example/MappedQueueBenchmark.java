@@ -0,0 +1,94 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedQueueBenchmark {
+
+    public static final int RECORDS = 2_000_000;
+    public static final int RECORD_LENGTH = 64;
+    public static final int BATCH = 256;
+    public static final int WARMUP_ROUNDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        System.out.println(RECORDS + " records of " + RECORD_LENGTH + " bytes, one writer and one reader");
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runInMemory();
+            runMapped();
+        }
+
+        double inMemory = runInMemory();
+        double mapped = runMapped();
+
+        System.out.printf("RecordRingBuffer: %,.0f records/s%n", inMemory);
+        System.out.printf("MappedQueue:      %,.0f records/s (flushed every %d ms)%n", mapped,
+                MappedQueue.DEFAULT_FLUSH_INTERVAL_MILLIS);
+        System.out.printf("Ratio:            %.2f%n", mapped / inMemory);
+    }
+
+    static double runInMemory() throws InterruptedException {
+        RecordRingBuffer ring = new RecordRingBuffer(1 << 20);
+        long[] sink = {0};
+        Thread reader = new Thread(() -> {
+            try {
+                int received = 0;
+                while (received < RECORDS) {
+                    received += ring.take((buffer, offset, length) -> sink[0] += buffer.get(offset), BATCH);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        long begin = System.nanoTime();
+        reader.start();
+        for (int i = 0; i < RECORDS; i++) {
+            int offset = ring.claim(RECORD_LENGTH);
+            ring.buffer().put(offset, (byte) i);
+            ring.commit(offset);
+        }
+        reader.join();
+        return (double) RECORDS / (System.nanoTime() - begin) * 1_000_000_000L;
+    }
+
+    static double runMapped() throws Exception {
+        Path directory = Files.createTempDirectory("mapped-queue");
+        ByteBuffer record = ByteBuffer.allocateDirect(RECORD_LENGTH);
+        long[] sink = {0};
+
+        double rate;
+        try (MappedQueue queue = MappedQueue.open(directory)) {
+            MappedQueue.Reader reader = queue.reader("benchmark");
+            Thread readerThread = new Thread(() -> {
+                try {
+                    int received = 0;
+                    while (received < RECORDS) {
+                        received += reader.take((buffer, offset, length) -> sink[0] += buffer.get(offset), BATCH);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            long begin = System.nanoTime();
+            readerThread.start();
+            for (int i = 0; i < RECORDS; i++) {
+                record.clear().put(0, (byte) i);
+                queue.append(record);
+            }
+            readerThread.join();
+            rate = (double) RECORDS / (System.nanoTime() - begin) * 1_000_000_000L;
+            reader.close();
+        }
+
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+        return rate;
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Ring for any number of producers and consumers. Each slot carries its own sequence number, so
+ * both sides claim slots with a CAS on their own padded counter and hand items over with
+ * acquire/release stores instead of a shared monitor. {@code null} items are rejected because
+ * {@link #poll()} uses {@code null} for empty.
+ */
+public class MpmcRingBuffer<T> extends AbstractArrayRing<T> {
+    private static final VarHandle SEQUENCES = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final long[] sequences;
+
+    public MpmcRingBuffer(int capacity) {
+        this(capacity, BlockingWaitStrategy::new);
+    }
+
+    public MpmcRingBuffer(int capacity, Supplier<? extends WaitStrategy> waitStrategy) {
+        super(capacity, waitStrategy);
+        this.sequences = new long[slots.length];
+        for (int i = 0; i < sequences.length; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "item");
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long available = (long) SEQUENCES.getAcquire(sequences, index) - position;
+
+            if (available == 0) {
+                if (position - head.get() >= limit) {
+                    return false;
+                }
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = item;
+                    SEQUENCES.setRelease(sequences, index, position + 1);
+                    signalNotEmpty();
+                    return true;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+        }
+    }
+
+    @Override
+    protected int publishRun(List<? extends T> items, int from) {
+        while (true) {
+            long position = tail.get();
+            int wanted = Math.min(items.size() - from, (int) (limit - (position - head.get())));
+            int run = 0;
+            while (run < wanted && (long) SEQUENCES.getAcquire(sequences, (int) (position + run) & mask) == position + run) {
+                run++;
+            }
+            if (run == 0) {
+                if (tail.get() == position) {
+                    return 0;
+                }
+            } else if (tail.compareAndSet(position, position + run)) {
+                for (int i = 0; i < run; i++) {
+                    int index = (int) (position + i) & mask;
+                    slots[index] = items.get(from + i);
+                    SEQUENCES.setRelease(sequences, index, position + i + 1);
+                }
+                return run;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) position & mask;
+            long available = (long) SEQUENCES.getAcquire(sequences, index) - (position + 1);
+
+            if (available == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T item = (T) slots[index];
+                    slots[index] = null;
+                    SEQUENCES.setRelease(sequences, index, position + mask + 1);
+                    signalNotFull();
+                    return item;
+                }
+            } else if (available < 0) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected int consumeRun(Collection<? super T> sink, int max) {
+        while (true) {
+            long position = head.get();
+            int run = 0;
+            while (run < max && (long) SEQUENCES.getAcquire(sequences, (int) (position + run) & mask) == position + run + 1) {
+                run++;
+            }
+            if (run == 0) {
+                if (head.get() == position) {
+                    return 0;
+                }
+            } else if (head.compareAndSet(position, position + run)) {
+                for (int i = 0; i < run; i++) {
+                    int index = (int) (position + i) & mask;
+                    sink.add((T) slots[index]);
+                    slots[index] = null;
+                    SEQUENCES.setRelease(sequences, index, position + i + mask + 1);
+                }
+                return run;
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Ring for many producer threads and one consumer thread. Producers claim a slot with a CAS on
+ * the tail and publish the item with a release store into the slot itself; the single consumer
+ * needs no CAS and frees slots by releasing the head. A claimed slot that is not yet filled reads
+ * as empty until its producer publishes it.
+ */
+public class MpscRingBuffer<T> extends AbstractArrayRing<T> {
+    private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    public MpscRingBuffer(int capacity) {
+        this(capacity, BlockingWaitStrategy::new);
+    }
+
+    public MpscRingBuffer(int capacity, Supplier<? extends WaitStrategy> waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "item");
+        while (true) {
+            long position = tail.get();
+            if (position - head.getAcquire() >= limit) {
+                return false;
+            }
+            if (tail.compareAndSet(position, position + 1)) {
+                SLOTS.setRelease(slots, (int) position & mask, item);
+                signalNotEmpty();
+                return true;
+            }
+        }
+    }
+
+    @Override
+    protected int publishRun(List<? extends T> items, int from) {
+        while (true) {
+            long position = tail.get();
+            int run = Math.min(items.size() - from, (int) (limit - (position - head.getAcquire())));
+            if (run <= 0) {
+                return 0;
+            }
+            if (tail.compareAndSet(position, position + run)) {
+                for (int i = 0; i < run; i++) {
+                    SLOTS.setRelease(slots, (int) (position + i) & mask, items.get(from + i));
+                }
+                return run;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head.getPlain();
+        int index = (int) position & mask;
+        T item = (T) SLOTS.getAcquire(slots, index);
+        if (item == null) {
+            return null;
+        }
+
+        slots[index] = null;
+        head.setRelease(position + 1);
+        signalNotFull();
+        return item;
+    }
+
+    // Stops at the first claimed slot whose producer has not published yet.
+    @Override
+    @SuppressWarnings("unchecked")
+    protected int consumeRun(Collection<? super T> sink, int max) {
+        long position = head.getPlain();
+        int run = 0;
+        T item;
+        while (run < max && (item = (T) SLOTS.getAcquire(slots, (int) (position + run) & mask)) != null) {
+            sink.add(item);
+            slots[(int) (position + run) & mask] = null;
+            run++;
+        }
+        if (run > 0) {
+            head.setRelease(position + run);
+        }
+        return run;
+    }
+}
@@ -0,0 +1,186 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Runs a transform on several worker threads between two rings while keeping the output in input
+ * order. Each worker takes an item together with the next input sequence, transforms it outside
+ * any lock and parks the result in a reorder window indexed by that sequence. Whichever worker
+ * completes the oldest outstanding sequence emits the contiguous run of finished results to the
+ * sink. Workers stop taking input while the window holds {@code window} unemitted items, so
+ * memory stays bounded however far one slow item falls behind.
+ *
+ * <p>A transform that throws, or returns {@code null}, is logged and its item is skipped without
+ * holding up the items after it. An {@link Error} skips the item too, then ends the worker that ran it.
+ */
+public class OrderedParallelStage<I, O> implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(OrderedParallelStage.class.getName());
+    private static final VarHandle RESULTS = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final Object SKIPPED = new Object();
+
+    private final BlockingRing<? extends I> source;
+    private final BlockingRing<? super O> sink;
+    private final Function<? super I, ? extends O> transform;
+    private final Object[] results;
+    private final int mask;
+    private final Sequence emitted = new Sequence(0);
+    private final ReentrantLock claimLock = new ReentrantLock();
+    private final ReentrantLock emitLock = new ReentrantLock();
+    private final WaitStrategy windowWait;
+    private final List<Thread> threads = new ArrayList<>();
+    private long claimed;
+    private volatile boolean started;
+
+    public OrderedParallelStage(BlockingRing<? extends I> source, BlockingRing<? super O> sink,
+                                Function<? super I, ? extends O> transform, int workers, int window) {
+        this(source, sink, transform, workers, window, BlockingWaitStrategy::new);
+    }
+
+    /**
+     * Creates a stage of {@code workers} threads whose reorder window holds {@code window} results,
+     * rounded up to a power of two.
+     */
+    public OrderedParallelStage(BlockingRing<? extends I> source, BlockingRing<? super O> sink,
+                                Function<? super I, ? extends O> transform, int workers, int window,
+                                Supplier<? extends WaitStrategy> waitStrategy) {
+        if (workers <= 0 || window <= 0) {
+            throw new IllegalArgumentException("Worker count and window must be greater than 0");
+        }
+
+        int length = Integer.highestOneBit(window);
+        if (length < window) {
+            length <<= 1;
+        }
+
+        this.source = source;
+        this.sink = sink;
+        this.transform = transform;
+        this.results = new Object[length];
+        this.mask = length - 1;
+        this.windowWait = waitStrategy.get();
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "ordered-stage-worker-" + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+    }
+
+    public synchronized void start() {
+        if (started) {
+            throw new IllegalStateException("Stage already started");
+        }
+        started = true;
+        threads.forEach(Thread::start);
+    }
+
+    /**
+     * Number of items taken from the source whose results have been skipped or handed to the
+     * sink. The count is advanced just before the hand-off, so it never trails what a consumer of
+     * the sink has already seen.
+     */
+    public long getEmitted() {
+        return emitted.get();
+    }
+
+    /**
+     * Stops the workers. Items already taken from the source but not yet emitted are dropped.
+     */
+    @Override
+    public void close() {
+        if (!started) {
+            return;
+        }
+
+        threads.forEach(Thread::interrupt);
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void work() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long sequence;
+                I item;
+                claimLock.lockInterruptibly();
+                try {
+                    sequence = claimed;
+                    if (sequence - emitted.get() > mask) {
+                        windowWait.await(Gate.NOT_FULL, () -> sequence - emitted.get() <= mask, false, 0);
+                    }
+                    item = source.take();
+                    claimed = sequence + 1;
+                } finally {
+                    claimLock.unlock();
+                }
+
+                // An Error from the transform still skips the item before it ends this worker, or the
+                // sequence would never be emitted and the window would stall every other worker.
+                Object result = SKIPPED;
+                try {
+                    result = apply(item, sequence);
+                } finally {
+                    RESULTS.setVolatile(results, (int) sequence & mask, result);
+                    emitReady();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Object apply(I item, long sequence) {
+        try {
+            O result = transform.apply(item);
+            if (result != null) {
+                return result;
+            }
+            LOGGER.log(Level.WARNING, "Transform returned null for item " + sequence);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Transform failed on item " + sequence, e);
+        }
+        return SKIPPED;
+    }
+
+    // A worker that stores a result while another one holds the emit lock relies on that one to
+    // re-check the window after unlocking; volatile slot access keeps the two from missing each other.
+    @SuppressWarnings("unchecked")
+    private void emitReady() throws InterruptedException {
+        while (RESULTS.getVolatile(results, (int) emitted.get() & mask) != null && emitLock.tryLock()) {
+            try {
+                long next = emitted.get();
+                Object result;
+                while ((result = RESULTS.getVolatile(results, (int) next & mask)) != null) {
+                    RESULTS.setVolatile(results, (int) next & mask, null);
+                    emitted.setRelease(++next);
+                    windowWait.signal(Gate.NOT_FULL, 1);
+                    if (result != SKIPPED) {
+                        sink.put((O) result);
+                    }
+                }
+            } finally {
+                emitLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spins for a while, then parks for a fixed interval between retries. Idle threads cost almost
+ * no CPU and producers never pay for a wake-up, at the price of up to one park interval of
+ * latency when the ring becomes ready.
+ */
+public class ParkingWaitStrategy extends BackoffWaitStrategy {
+    public static final int DEFAULT_SPIN_TRIES = 100;
+    public static final long DEFAULT_PARK_NANOS = 50_000;
+
+    private final int spinTries;
+    private final long parkNanos;
+
+    public ParkingWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES, DEFAULT_PARK_NANOS);
+    }
+
+    public ParkingWaitStrategy(int spinTries, long parkNanos) {
+        if (parkNanos <= 0) {
+            throw new IllegalArgumentException("Park interval must be greater than 0");
+        }
+
+        this.spinTries = spinTries;
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    protected void idle(int attempt) {
+        if (attempt < spinTries) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(this, parkNanos);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package org.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.example.WaitStrategy.Gate;
+
+/**
+ * Multi-producer, single-consumer ring of variable-length byte records in one direct
+ * {@link ByteBuffer}. Producers {@link #claim} space, serialize straight into {@link #buffer()} at
+ * the returned offset and {@link #commit} it; the consumer gets each record as an offset and
+ * length into a read-only view of the same memory. Nothing is copied and nothing is allocated per
+ * record, so steady state produces no garbage.
+ *
+ * <p>Every record starts with an 8-byte header (length, state) and is padded to 8 bytes. A record
+ * that does not fit before the end of the buffer is preceded by a padding record and placed at
+ * the start. The consumer zeroes what it has read before releasing it, so a zero state always
+ * means "not committed yet". All access to {@link #buffer()} must use absolute gets and puts.
+ */
+public class RecordRingBuffer {
+    public static final int HEADER_LENGTH = 8;
+    public static final int ALIGNMENT = 8;
+
+    private static final int STATE_OFFSET = 4;
+    private static final int COMMITTED = 1;
+    private static final int PADDING = 2;
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ByteBuffer buffer;
+    private final ByteBuffer view;
+    private final int capacity;
+    private final int mask;
+    private final int maxRecordLength;
+    private final Sequence head = new Sequence(0);
+    private final Sequence tail = new Sequence(0);
+    private final WaitStrategy waitStrategy;
+    private final BooleanSupplier readable = this::isReadable;
+    // Created once per producer thread, so a claim that has to wait allocates nothing either.
+    private final ThreadLocal<ClaimAttempt> claimAttempt = ThreadLocal.withInitial(ClaimAttempt::new);
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * Receives one record. The view is only valid until the handler returns.
+         */
+        void onRecord(ByteBuffer buffer, int offset, int length);
+    }
+
+    public RecordRingBuffer(int capacity) {
+        this(capacity, BlockingWaitStrategy::new);
+    }
+
+    /**
+     * Creates a ring of {@code capacity} bytes, rounded up to a power of two. A single record may
+     * use at most half of it, which guarantees it fits whatever the wrap point.
+     */
+    public RecordRingBuffer(int capacity, Supplier<? extends WaitStrategy> waitStrategy) {
+        if (capacity < 4 * HEADER_LENGTH) {
+            throw new IllegalArgumentException("Capacity must be at least " + 4 * HEADER_LENGTH + " bytes");
+        }
+
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) {
+            length <<= 1;
+        }
+
+        this.buffer = ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+        this.view = buffer.asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+        this.capacity = length;
+        this.mask = length - 1;
+        this.maxRecordLength = length / 2 - HEADER_LENGTH;
+        this.waitStrategy = waitStrategy.get();
+    }
+
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int maxRecordLength() {
+        return maxRecordLength;
+    }
+
+    /**
+     * Reserves {@code length} bytes and returns the offset to write them at, or {@code -1} if the
+     * ring has no room right now.
+     */
+    public int tryClaim(int length) {
+        if (length < 0 || length > maxRecordLength) {
+            throw new IllegalArgumentException("Record length must be between 0 and " + maxRecordLength);
+        }
+
+        int recordLength = align(HEADER_LENGTH + length);
+        while (true) {
+            long position = tail.get();
+            int offset = (int) position & mask;
+            int toEnd = capacity - offset;
+            int required = recordLength > toEnd ? toEnd + recordLength : recordLength;
+
+            if (position + required - head.getAcquire() > capacity) {
+                return -1;
+            }
+            if (tail.compareAndSet(position, position + required)) {
+                if (recordLength > toEnd) {
+                    buffer.putInt(offset, toEnd - HEADER_LENGTH);
+                    INTS.setRelease(buffer, offset + STATE_OFFSET, PADDING);
+                    offset = 0;
+                }
+                buffer.putInt(offset, length);
+                return offset + HEADER_LENGTH;
+            }
+        }
+    }
+
+    /**
+     * Like {@link #tryClaim} but waits until the record, including any padding to the wrap point,
+     * fits.
+     */
+    public int claim(int length) throws InterruptedException {
+        int offset = tryClaim(length);
+        if (offset >= 0) {
+            return offset;
+        }
+
+        ClaimAttempt attempt = claimAttempt.get();
+        attempt.length = length;
+        waitStrategy.await(Gate.NOT_FULL, attempt, false, 0);
+        return attempt.offset;
+    }
+
+    /**
+     * Publishes the record claimed at {@code offset}.
+     */
+    public void commit(int offset) {
+        INTS.setRelease(buffer, offset - HEADER_LENGTH + STATE_OFFSET, COMMITTED);
+        waitStrategy.signal(Gate.NOT_EMPTY, 1);
+    }
+
+    /**
+     * Hands up to {@code maxRecords} committed records to {@code handler} without blocking and
+     * returns how many were read. Must only be called from the single consumer thread.
+     */
+    public int poll(RecordHandler handler, int maxRecords) {
+        long position = head.getPlain();
+        int records = 0;
+        long consumed = 0;
+
+        while (records < maxRecords) {
+            int offset = (int) (position + consumed) & mask;
+            int state = (int) INTS.getAcquire(buffer, offset + STATE_OFFSET);
+            if (state == 0) {
+                break;
+            }
+
+            int length = buffer.getInt(offset);
+            if (state == COMMITTED) {
+                handler.onRecord(view, offset + HEADER_LENGTH, length);
+                records++;
+            }
+            int recordLength = align(HEADER_LENGTH + length);
+            zero(offset, recordLength);
+            consumed += recordLength;
+        }
+
+        if (consumed > 0) {
+            head.setRelease(position + consumed);
+            waitStrategy.signal(Gate.NOT_FULL, Math.max(1, records));
+        }
+        return records;
+    }
+
+    /**
+     * Like {@link #poll} but waits until at least one record is available.
+     */
+    public int take(RecordHandler handler, int maxRecords) throws InterruptedException {
+        int records;
+        while ((records = poll(handler, maxRecords)) == 0) {
+            waitStrategy.await(Gate.NOT_EMPTY, readable, false, 0);
+        }
+        return records;
+    }
+
+    public boolean isEmpty() {
+        return head.get() == tail.get();
+    }
+
+    private void zero(int offset, int length) {
+        for (int i = 0; i < length; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0);
+        }
+    }
+
+    private boolean isReadable() {
+        return (int) INTS.getAcquire(buffer, ((int) head.get() & mask) + STATE_OFFSET) != 0;
+    }
+
+    // The claim itself is the wait predicate, since only the claiming producer knows how much room it needs.
+    private final class ClaimAttempt implements BooleanSupplier {
+        private int length;
+        private int offset;
+
+        @Override
+        public boolean getAsBoolean() {
+            return (offset = tryClaim(length)) >= 0;
+        }
+    }
+
+    private static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
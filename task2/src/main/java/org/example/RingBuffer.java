@@ -1,8 +1,13 @@
 package org.example;
 
-public class RingBuffer<T> {
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RingBuffer<T> implements BlockingRing<T> {
     private Node<T> head;
     private Node<T> tail;
+    private int size;
 
     public RingBuffer(int capacity) {
         if (capacity <= 0) {
@@ -20,27 +25,131 @@ public class RingBuffer<T> {
         current.setNext(head);
     }
 
+    @Override
     public synchronized void put(T item) throws InterruptedException {
-        while (tail.getNext() == head) {
+        while (isFull()) {
             wait();
         }
 
-        tail.setValue(item);
-        tail = tail.getNext();
-
+        enqueue(item);
         notifyAll();
     }
 
+    @Override
     public synchronized T take() throws InterruptedException {
         while (head == tail) {
             wait();
         }
 
+        T value = dequeue();
+        notifyAll();
+        return value;
+    }
+
+    @Override
+    public synchronized boolean offer(T item) {
+        if (isFull()) {
+            return false;
+        }
+
+        enqueue(item);
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean offer(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        while (isFull()) {
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+
+        enqueue(item);
+        notifyAll();
+        return true;
+    }
+
+    @Override
+    public synchronized T poll() {
+        if (head == tail) {
+            return null;
+        }
+
+        T value = dequeue();
+        notifyAll();
+        return value;
+    }
+
+    @Override
+    public synchronized T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + remaining;
+        while (head == tail) {
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = deadline - System.nanoTime();
+        }
+
+        T value = dequeue();
+        notifyAll();
+        return value;
+    }
+
+    @Override
+    public synchronized void putAll(List<? extends T> items) throws InterruptedException {
+        int next = 0;
+        while (next < items.size()) {
+            while (isFull()) {
+                wait();
+            }
+
+            while (next < items.size() && !isFull()) {
+                enqueue(items.get(next++));
+            }
+            notifyAll();
+        }
+    }
+
+    @Override
+    public synchronized int drainTo(Collection<? super T> sink, int max) {
+        int drained = 0;
+        while (drained < max && head != tail) {
+            sink.add(dequeue());
+            drained++;
+        }
+        if (drained > 0) {
+            notifyAll();
+        }
+        return drained;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean isFull() {
+        return tail.getNext() == head;
+    }
+
+    private void enqueue(T item) {
+        tail.setValue(item);
+        tail = tail.getNext();
+        size++;
+    }
+
+    private T dequeue() {
         T value = head.getValue();
         head.setValue(null);
         head = head.getNext();
-
-        notifyAll();
+        size--;
         return value;
     }
 }
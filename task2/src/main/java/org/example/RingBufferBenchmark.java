@@ -0,0 +1,82 @@
+package org.example;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+
+public class RingBufferBenchmark {
+
+    public static final int CAPACITY = 1024;
+    public static final int ITEMS = 4_000_000;
+    public static final int WARMUP_ROUNDS = 2;
+    public static final int[][] TOPOLOGIES = {{1, 1}, {2, 1}, {2, 2}};
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Capacity " + CAPACITY + ", " + ITEMS + " items per run");
+        System.out.printf("%-10s %-16s %16s %16s %8s%n", "Topology", "Ring", "RingBuffer/s", "Specialized/s", "Speedup");
+
+        for (int[] topology : TOPOLOGIES) {
+            int producers = topology[0];
+            int consumers = topology[1];
+            IntFunction<BlockingRing<Integer>> specialized = capacity -> RingBuffers.create(capacity, producers, consumers);
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(new RingBuffer<>(CAPACITY), producers, consumers);
+                run(specialized.apply(CAPACITY), producers, consumers);
+            }
+
+            double linkedOps = run(new RingBuffer<>(CAPACITY), producers, consumers);
+            BlockingRing<Integer> ring = specialized.apply(CAPACITY);
+            double specializedOps = run(ring, producers, consumers);
+
+            System.out.printf("%-10s %-16s %,16.0f %,16.0f %7.2fx%n", producers + "P/" + consumers + "C",
+                    ring.getClass().getSimpleName(), linkedOps, specializedOps, specializedOps / linkedOps);
+        }
+    }
+
+    static double run(BlockingRing<Integer> ring, int producers, int consumers) throws InterruptedException {
+        Integer item = 42;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers + consumers);
+
+        long elapsed;
+        try (ExecutorService pool = Executors.newFixedThreadPool(producers + consumers)) {
+            for (int p = 0; p < producers; p++) {
+                pool.submit(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < ITEMS / producers; i++) {
+                            ring.put(item);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            for (int c = 0; c < consumers; c++) {
+                pool.submit(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < ITEMS / consumers; i++) {
+                            ring.take();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            elapsed = System.nanoTime() - begin;
+        }
+
+        return (double) ITEMS / elapsed * 1_000_000_000L;
+    }
+}
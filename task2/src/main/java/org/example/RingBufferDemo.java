@@ -7,17 +7,22 @@ public class RingBufferDemo {
 
     private static final Logger LOGGER = Logger.getLogger(RingBufferDemo.class.getName());
 
+    public static final int PRODUCERS = 5;
+    public static final int TRANSLATORS = 2;
+    public static final int TRANSLATOR_WINDOW = 16;
+
     public static void main(String[] args) {
-        RingBuffer<String> buffer1 = new RingBuffer<>(10);
-        RingBuffer<String> buffer2 = new RingBuffer<>(10);
+        BlockingRing<String> buffer1 = RingBuffers.create(10, PRODUCERS, TRANSLATORS);
+        BlockingRing<String> buffer2 = RingBuffers.create(10, TRANSLATORS, 1);
 
-        for (int i = 1; i <= 5; i++) {
+        for (int i = 1; i <= PRODUCERS; i++) {
             startProducer(i, buffer1);
         }
 
-        for (int i = 1; i <= 2; i++) {
-            startTranslator(i, buffer1, buffer2);
-        }
+        OrderedParallelStage<String, String> translators = new OrderedParallelStage<>(buffer1, buffer2,
+                msg -> Thread.currentThread().getName() + " translated message [" + msg + "]",
+                TRANSLATORS, TRANSLATOR_WINDOW);
+        translators.start();
 
         System.out.println("Main: Starting to read data...");
 
@@ -34,7 +39,7 @@ public class RingBufferDemo {
         System.out.println("Main: Work finished. Daemons are stopping.");
     }
 
-    private static void startProducer(int id, RingBuffer<String> buffer) {
+    private static void startProducer(int id, BlockingRing<String> buffer) {
         Thread producer = new Thread(() -> {
             try {
                 while (true) {
@@ -49,20 +54,4 @@ public class RingBufferDemo {
         producer.setDaemon(true);
         producer.start();
     }
-
-    private static void startTranslator(int id, RingBuffer<String> source, RingBuffer<String> dest) {
-        Thread translator = new Thread(() -> {
-            try {
-                while (true) {
-                    String received = source.take();
-                    String newMsg = "Thread #" + id + " translated message [" + received + "]";
-                    dest.put(newMsg);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        });
-        translator.setDaemon(true);
-        translator.start();
-    }
 }
@@ -0,0 +1,31 @@
+package org.example;
+
+import java.util.function.Supplier;
+
+public final class RingBuffers {
+
+    private RingBuffers() {
+    }
+
+    /**
+     * Picks the cheapest ring that is correct for the declared number of producer and consumer
+     * threads. The counts are a promise: an SPSC or MPSC ring is corrupted if more threads than
+     * declared use the side they were told is single.
+     */
+    public static <T> BlockingRing<T> create(int capacity, int producers, int consumers) {
+        return create(capacity, producers, consumers, BlockingWaitStrategy::new);
+    }
+
+    public static <T> BlockingRing<T> create(int capacity, int producers, int consumers,
+                                             Supplier<? extends WaitStrategy> waitStrategy) {
+        if (producers <= 0 || consumers <= 0) {
+            throw new IllegalArgumentException("Producer and consumer counts must be greater than 0");
+        }
+
+        if (consumers > 1) {
+            return new MpmcRingBuffer<>(capacity, waitStrategy);
+        }
+        return producers == 1 ? new SpscRingBuffer<>(capacity, waitStrategy)
+                : new MpscRingBuffer<>(capacity, waitStrategy);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Ring for exactly one producer thread and one consumer thread. Each side owns its sequence, so
+ * there is no CAS: the producer fills a slot with a plain store and publishes it by releasing the
+ * tail, and the consumer frees it by releasing the head. Each side also caches the other's last
+ * seen sequence and only re-reads it when the cached value says the ring is full or empty.
+ */
+public class SpscRingBuffer<T> extends AbstractArrayRing<T> {
+    private final Sequence headCache = new Sequence(0);
+    private final Sequence tailCache = new Sequence(0);
+
+    public SpscRingBuffer(int capacity) {
+        this(capacity, BlockingWaitStrategy::new);
+    }
+
+    public SpscRingBuffer(int capacity, Supplier<? extends WaitStrategy> waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    @Override
+    public boolean offer(T item) {
+        Objects.requireNonNull(item, "item");
+        long position = tail.getPlain();
+        if (position - headCache.getPlain() >= limit) {
+            headCache.setPlain(head.getAcquire());
+            if (position - headCache.getPlain() >= limit) {
+                return false;
+            }
+        }
+
+        slots[(int) position & mask] = item;
+        tail.setRelease(position + 1);
+        signalNotEmpty();
+        return true;
+    }
+
+    @Override
+    protected int publishRun(List<? extends T> items, int from) {
+        long position = tail.getPlain();
+        int run = Math.min(items.size() - from, (int) (limit - (position - head.getAcquire())));
+        for (int i = 0; i < run; i++) {
+            slots[(int) (position + i) & mask] = items.get(from + i);
+        }
+        if (run > 0) {
+            tail.setRelease(position + run);
+        }
+        return Math.max(run, 0);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = head.getPlain();
+        if (position >= tailCache.getPlain()) {
+            tailCache.setPlain(tail.getAcquire());
+            if (position >= tailCache.getPlain()) {
+                return null;
+            }
+        }
+
+        int index = (int) position & mask;
+        T item = (T) slots[index];
+        slots[index] = null;
+        head.setRelease(position + 1);
+        signalNotFull();
+        return item;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected int consumeRun(Collection<? super T> sink, int max) {
+        long position = head.getPlain();
+        int run = (int) Math.min(max, tail.getAcquire() - position);
+        for (int i = 0; i < run; i++) {
+            int index = (int) (position + i) & mask;
+            sink.add((T) slots[index]);
+            slots[index] = null;
+        }
+        if (run > 0) {
+            head.setRelease(position + run);
+        }
+        return Math.max(run, 0);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * How a ring thread waits when the ring is full or empty, and how the other side wakes it. The
+ * spinning strategies burn CPU to react within nanoseconds and need no signal at all, while
+ * {@link BlockingWaitStrategy} sleeps on a condition and is woken explicitly. A strategy may keep
+ * per-ring state, so rings take a factory and create their own instance.
+ */
+public interface WaitStrategy {
+
+    enum Gate {
+        NOT_EMPTY, NOT_FULL
+    }
+
+    /**
+     * Retries {@code attempt} until it returns {@code true}, waiting for {@code gate} in between.
+     * Returns {@code false} if {@code timed} and {@code nanos} run out first.
+     */
+    boolean await(Gate gate, BooleanSupplier attempt, boolean timed, long nanos) throws InterruptedException;
+
+    /**
+     * Called after {@code count} slots were filled ({@link Gate#NOT_EMPTY}) or freed
+     * ({@link Gate#NOT_FULL}).
+     */
+    void signal(Gate gate, int count);
+}
@@ -0,0 +1,81 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Measures handoff latency through an SPSC ring for each wait strategy. The producer sends a
+ * timestamp every {@link #INTERVAL_NANOS}, so the consumer is idle between messages and the
+ * latency includes waking it up: the cost each strategy trades against CPU burned while idle.
+ */
+public class WaitStrategyBenchmark {
+
+    public static final int CAPACITY = 1024;
+    public static final int MESSAGES = 100_000;
+    public static final int WARMUP_MESSAGES = 20_000;
+    public static final long INTERVAL_NANOS = 20_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, Supplier<WaitStrategy>> strategies = new LinkedHashMap<>();
+        strategies.put("busy-spin", BusySpinWaitStrategy::new);
+        strategies.put("yielding", YieldingWaitStrategy::new);
+        strategies.put("parking", ParkingWaitStrategy::new);
+        strategies.put("blocking", BlockingWaitStrategy::new);
+
+        System.out.printf("%d messages, one every %d us, %d CPUs%n", MESSAGES, INTERVAL_NANOS / 1_000,
+                Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-10s %10s %10s %10s %10s %10s%n", "Strategy", "p50 us", "p99 us", "p99.9 us", "max us",
+                "CPU ms");
+
+        for (Map.Entry<String, Supplier<WaitStrategy>> strategy : strategies.entrySet()) {
+            run(strategy.getValue(), WARMUP_MESSAGES);
+            long cpuBefore = processCpuNanos();
+            long[] latencies = run(strategy.getValue(), MESSAGES);
+            long cpuMillis = (processCpuNanos() - cpuBefore) / 1_000_000;
+
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %,10.1f %,10.1f %,10.1f %,10.1f %,10d%n", strategy.getKey(),
+                    percentile(latencies, 50), percentile(latencies, 99), percentile(latencies, 99.9),
+                    latencies[latencies.length - 1] / 1_000.0, cpuMillis);
+        }
+    }
+
+    static long[] run(Supplier<WaitStrategy> strategy, int messages) throws InterruptedException {
+        BlockingRing<Long> ring = new SpscRingBuffer<>(CAPACITY, strategy);
+        long[] latencies = new long[messages];
+
+        Thread consumer = new Thread(() -> {
+            try {
+                for (int i = 0; i < messages; i++) {
+                    latencies[i] = System.nanoTime() - ring.take();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        long next = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            next += INTERVAL_NANOS;
+            LockSupport.parkNanos(next - System.nanoTime());
+            ring.put(System.nanoTime());
+        }
+        consumer.join();
+
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000.0;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) java.lang.management.ManagementFactory
+                .getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+}
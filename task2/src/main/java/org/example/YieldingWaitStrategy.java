@@ -0,0 +1,28 @@
+package org.example;
+
+/**
+ * Spins for a while, then yields the CPU between retries. Close to busy-spin latency while
+ * letting other runnable threads make progress.
+ */
+public class YieldingWaitStrategy extends BackoffWaitStrategy {
+    public static final int DEFAULT_SPIN_TRIES = 100;
+
+    private final int spinTries;
+
+    public YieldingWaitStrategy() {
+        this(DEFAULT_SPIN_TRIES);
+    }
+
+    public YieldingWaitStrategy(int spinTries) {
+        this.spinTries = spinTries;
+    }
+
+    @Override
+    protected void idle(int attempt) {
+        if (attempt < spinTries) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+}
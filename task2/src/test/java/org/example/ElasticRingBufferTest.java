@@ -0,0 +1,155 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElasticRingBufferTest {
+    @Test
+    void testPolicyValidation() {
+        assertThrows(IllegalArgumentException.class, () -> ElasticCapacityPolicy.between(6, 1, 4));
+        assertThrows(IllegalArgumentException.class, () -> ElasticCapacityPolicy.between(8, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> ElasticCapacityPolicy.between(8, 4, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ElasticCapacityPolicy(8, 1, 4, 0, 0.25, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ElasticCapacityPolicy(8, 1, 4, 1, 1.0, 1));
+    }
+
+    @Test
+    void testGrowsUnderPressureUpToMaximum() {
+        ElasticRingBuffer<Integer> ring = new ElasticRingBuffer<>(new ElasticCapacityPolicy(4, 1, 3, 2, 0.25, 1));
+        assertEquals(4, ring.getCapacity());
+
+        int accepted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (ring.offer(accepted)) {
+                accepted++;
+            }
+        }
+
+        assertEquals(12, ring.getCapacity());
+        assertEquals(12, accepted);
+        assertEquals(12, ring.size());
+        assertFalse(ring.offer(-1));
+        for (int i = 0; i < accepted; i++) {
+            assertEquals(i, ring.poll());
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void testShrinksAndReleasesChunksWhenOccupancyStaysLow() {
+        ElasticRingBuffer<Integer> ring = new ElasticRingBuffer<>(new ElasticCapacityPolicy(4, 1, 4, 1, 0.5, 2));
+        while (ring.getCapacity() < 16) {
+            ring.offer(0);
+        }
+        ring.drainTo(new ArrayList<>(), Integer.MAX_VALUE);
+        assertTrue(ring.getChunkCount() <= 2, "Consumed chunks are unlinked");
+
+        for (int i = 0; i < 64; i++) {
+            assertTrue(ring.offer(i));
+            assertEquals(i, ring.poll());
+        }
+
+        assertEquals(4, ring.getCapacity());
+        assertTrue(ring.getChunkCount() <= 2);
+    }
+
+    @Test
+    @Timeout(2)
+    void testBlocksOnlyAtMaximumCapacity() throws InterruptedException {
+        ElasticRingBuffer<Integer> ring = new ElasticRingBuffer<>(new ElasticCapacityPolicy(2, 1, 2, 1, 0.25, 1));
+        for (int i = 0; i < 4; i++) {
+            ring.put(i);
+        }
+
+        Thread producer = new Thread(() -> {
+            try {
+                ring.put(4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(100);
+
+        assertEquals(Thread.State.WAITING, producer.getState());
+        assertEquals(0, ring.take());
+        producer.join();
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, ring.take());
+        }
+        assertNull(ring.poll(20, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @Timeout(5)
+    void testPutAllAndDrainToKeepOrderAcrossChunks() throws Exception {
+        ElasticRingBuffer<Integer> ring = new ElasticRingBuffer<>(ElasticCapacityPolicy.between(8, 1, 4));
+        List<Integer> items = IntStream.range(0, 10_000).boxed().toList();
+        List<Integer> received = new ArrayList<>();
+
+        try (ExecutorService service = Executors.newSingleThreadExecutor()) {
+            Future<?> producer = service.submit(() -> {
+                ring.putAll(items);
+                return null;
+            });
+
+            while (received.size() < items.size()) {
+                received.add(ring.take());
+                ring.drainTo(received, 5);
+            }
+            producer.get();
+        }
+
+        assertEquals(items, received);
+    }
+
+    @Test
+    @Timeout(20)
+    void testManyProducersAndConsumersWhileResizing() throws Exception {
+        final int PRODUCERS = 3;
+        final int CONSUMERS = 2;
+        final int ITEMS_PER_PRODUCER = 50_000;
+        ElasticRingBuffer<Long> ring = new ElasticRingBuffer<>(new ElasticCapacityPolicy(16, 1, 8, 4, 0.25, 4));
+        AtomicLong sum = new AtomicLong();
+        AtomicLong count = new AtomicLong();
+
+        try (ExecutorService service = Executors.newFixedThreadPool(PRODUCERS + CONSUMERS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                futures.add(service.submit(() -> {
+                    for (long j = 1; j <= ITEMS_PER_PRODUCER; j++) {
+                        ring.put(j);
+                    }
+                    return null;
+                }));
+            }
+            for (int c = 0; c < CONSUMERS; c++) {
+                futures.add(service.submit(() -> {
+                    for (int i = 0; i < PRODUCERS * ITEMS_PER_PRODUCER / CONSUMERS; i++) {
+                        sum.addAndGet(ring.take());
+                        count.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        long expected = (long) ITEMS_PER_PRODUCER * (ITEMS_PER_PRODUCER + 1) / 2 * PRODUCERS;
+        assertEquals((long) PRODUCERS * ITEMS_PER_PRODUCER, count.get());
+        assertEquals(expected, sum.get());
+        assertTrue(ring.isEmpty());
+        assertTrue(ring.getCapacity() <= 16 * 8);
+    }
+}
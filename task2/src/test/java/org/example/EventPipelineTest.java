@@ -0,0 +1,190 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventPipelineTest {
+    static final class Event {
+        long value;
+        long doubled;
+        long negated;
+    }
+
+    @Test
+    @Timeout(5)
+    void testChainedStagesSeeUpstreamWritesInOrder() throws InterruptedException {
+        AtomicInteger created = new AtomicInteger();
+        EventPipeline<Event> pipeline = new EventPipeline<>(() -> {
+            created.incrementAndGet();
+            return new Event();
+        }, 8);
+        List<Long> results = new ArrayList<>();
+
+        pipeline.handleEventsWith((event, sequence, endOfBatch) -> event.doubled = event.value * 2)
+                .then((event, sequence, endOfBatch) -> results.add(event.doubled));
+        pipeline.start();
+
+        for (long i = 0; i < 1_000; i++) {
+            pipeline.publishEvent((event, value) -> event.value = value, i);
+        }
+        pipeline.close();
+
+        assertEquals(8, created.get(), "Events are allocated once and reused");
+        assertEquals(1_000, results.size());
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i * 2L, results.get(i));
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void testFanOutThenFanIn() throws InterruptedException {
+        EventPipeline<Event> pipeline = new EventPipeline<>(Event::new, 16);
+        AtomicLong mismatches = new AtomicLong();
+        AtomicLong joined = new AtomicLong();
+
+        EventPipeline<Event>.StageGroup doubler = pipeline.handleEventsWith(
+                (event, sequence, endOfBatch) -> event.doubled = event.value * 2);
+        EventPipeline<Event>.StageGroup negator = pipeline.handleEventsWith(
+                (event, sequence, endOfBatch) -> event.negated = -event.value);
+        pipeline.after(doubler, negator).then((event, sequence, endOfBatch) -> {
+            if (event.doubled != event.value * 2 || event.negated != -event.value) {
+                mismatches.incrementAndGet();
+            }
+            joined.incrementAndGet();
+        });
+        pipeline.start();
+
+        for (long i = 1; i <= 5_000; i++) {
+            pipeline.publishEvent((event, value) -> event.value = value, i);
+        }
+        pipeline.close();
+
+        assertEquals(5_000, joined.get());
+        assertEquals(0, mismatches.get());
+    }
+
+    @Test
+    @Timeout(10)
+    void testConcurrentProducersWrapTheRing() throws Exception {
+        final int PRODUCERS = 4;
+        final int EVENTS_PER_PRODUCER = 10_000;
+        EventPipeline<Event> pipeline = new EventPipeline<>(Event::new, 4);
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger gaps = new AtomicInteger();
+        long[] lastSequence = {-1};
+
+        pipeline.handleEventsWith((event, sequence, endOfBatch) -> {
+            if (sequence != lastSequence[0] + 1) {
+                gaps.incrementAndGet();
+            }
+            lastSequence[0] = sequence;
+            sum.addAndGet(event.value);
+        });
+        pipeline.start();
+
+        try (ExecutorService service = Executors.newFixedThreadPool(PRODUCERS)) {
+            for (int p = 0; p < PRODUCERS; p++) {
+                service.submit(() -> {
+                    for (long i = 1; i <= EVENTS_PER_PRODUCER; i++) {
+                        pipeline.publishEvent((event, value) -> event.value = value, i);
+                    }
+                    return null;
+                });
+            }
+        }
+        pipeline.close();
+
+        assertEquals((long) PRODUCERS * EVENTS_PER_PRODUCER * (EVENTS_PER_PRODUCER + 1) / 2, sum.get());
+        assertEquals(PRODUCERS * EVENTS_PER_PRODUCER - 1, pipeline.getCursor());
+        assertEquals(0, gaps.get());
+    }
+
+    @Test
+    @Timeout(5)
+    void testFailingHandlerDoesNotStallPipeline() throws InterruptedException {
+        EventPipeline<Event> pipeline = new EventPipeline<>(Event::new, 4);
+        AtomicInteger processed = new AtomicInteger();
+
+        pipeline.handleEventsWith((event, sequence, endOfBatch) -> {
+            if (event.value == 3) {
+                throw new IllegalStateException("bad event");
+            }
+        }).then((event, sequence, endOfBatch) -> processed.incrementAndGet());
+        pipeline.start();
+
+        for (long i = 0; i < 10; i++) {
+            pipeline.publishEvent((event, value) -> event.value = value, i);
+        }
+        pipeline.close();
+
+        assertEquals(10, processed.get());
+    }
+
+    @Test
+    void testLifecycleValidation() throws InterruptedException {
+        EventPipeline<Event> pipeline = new EventPipeline<>(Event::new, 4);
+
+        assertThrows(IllegalStateException.class, pipeline::start);
+        assertThrows(IllegalStateException.class, pipeline::next);
+
+        pipeline.handleEventsWith((event, sequence, endOfBatch) -> { });
+        pipeline.start();
+
+        assertThrows(IllegalStateException.class, pipeline::start);
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.handleEventsWith((event, sequence, endOfBatch) -> { }));
+        pipeline.close();
+        assertThrows(IllegalStateException.class, pipeline::next, "No slots are handed out after close");
+
+        assertThrows(IllegalArgumentException.class, () -> new EventPipeline<>(Event::new, 0));
+    }
+
+    @Test
+    @Timeout(5)
+    void testCloseGivesUpOnClaimedSlotThatIsNeverPublished() throws InterruptedException {
+        EventPipeline<Event> pipeline = new EventPipeline<>(Event::new, 8);
+        List<Long> seen = new ArrayList<>();
+        pipeline.handleEventsWith((event, sequence, endOfBatch) -> seen.add(event.value));
+        pipeline.start();
+
+        pipeline.publishEvent((event, value) -> event.value = value, 1L);
+        pipeline.publishEvent((event, value) -> event.value = value, 2L);
+        pipeline.next();
+        pipeline.close();
+
+        assertEquals(List.of(1L, 2L), seen);
+    }
+
+    @Test
+    @Timeout(5)
+    void testInterruptedHandlerStopsItsStage() throws InterruptedException {
+        EventPipeline<Event> pipeline = new EventPipeline<>(Event::new, 8);
+        CompletableFuture<Thread> stageThread = new CompletableFuture<>();
+        List<Long> seen = new ArrayList<>();
+        pipeline.handleEventsWith((event, sequence, endOfBatch) -> {
+            stageThread.complete(Thread.currentThread());
+            if (event.value == 2) {
+                new CountDownLatch(1).await();
+            }
+            seen.add(event.value);
+        });
+        pipeline.start();
+
+        pipeline.publishEvent((event, value) -> event.value = value, 1L);
+        pipeline.publishEvent((event, value) -> event.value = value, 2L);
+        Thread thread = stageThread.join();
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(2));
+
+        assertFalse(thread.isAlive(), "An interrupt from a blocking handler ends the stage");
+        assertEquals(List.of(1L), seen);
+        pipeline.close();
+    }
+}
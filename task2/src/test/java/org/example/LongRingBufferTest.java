@@ -0,0 +1,103 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongRingBufferTest {
+    @Test
+    void testConstructorInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new LongRingBuffer(0));
+    }
+
+    @Test
+    void testFifoOrderAndCapacity() throws InterruptedException {
+        LongRingBuffer buffer = new LongRingBuffer(6);
+
+        for (long i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(i * 10));
+        }
+        assertFalse(buffer.offer(50));
+        assertEquals(5, buffer.size());
+
+        assertEquals(0, buffer.take());
+        assertEquals(10, buffer.poll(-1));
+        long[] drained = new long[3];
+        int[] count = {0};
+        assertEquals(3, buffer.drainTo(value -> drained[count[0]++] = value, 10));
+        assertArrayEquals(new long[]{20, 30, 40}, drained);
+        assertEquals(-1, buffer.poll(-1));
+    }
+
+    @Test
+    @Timeout(2)
+    void testBlocksOnEmpty() throws InterruptedException {
+        LongRingBuffer buffer = new LongRingBuffer(4);
+
+        Thread consumer = new Thread(() -> {
+            try {
+                buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        Thread.sleep(100);
+
+        assertEquals(Thread.State.WAITING, consumer.getState());
+        buffer.put(1);
+        consumer.join();
+    }
+
+    @Test
+    void testHotPathDoesNotAllocate() throws InterruptedException {
+        LongRingBuffer buffer = new LongRingBuffer(1024);
+        long sink = 0;
+        for (int i = 0; i < 100_000; i++) {
+            buffer.put(i);
+            sink += buffer.take();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            buffer.put(i);
+            sink += buffer.take();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sink > 0);
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes for 100k put/take pairs");
+    }
+
+    @Test
+    void testConcurrentProducersAndConsumers() throws InterruptedException {
+        final int THREAD_COUNT = 4;
+        final int ITEMS_PER_THREAD = 25_000;
+        LongRingBuffer buffer = new LongRingBuffer(64);
+        AtomicLong consumedSum = new AtomicLong();
+
+        try (ExecutorService service = Executors.newFixedThreadPool(THREAD_COUNT * 2)) {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                service.submit(() -> {
+                    for (long j = 1; j <= ITEMS_PER_THREAD; j++) {
+                        buffer.put(j);
+                    }
+                    return null;
+                });
+                service.submit(() -> {
+                    for (int j = 0; j < ITEMS_PER_THREAD; j++) {
+                        consumedSum.addAndGet(buffer.take());
+                    }
+                    return null;
+                });
+            }
+        }
+
+        assertEquals((long) THREAD_COUNT * ITEMS_PER_THREAD * (ITEMS_PER_THREAD + 1) / 2, consumedSum.get());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,220 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedQueueTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecordsRoundTripAcrossSegments() throws Exception {
+        List<String> received = new ArrayList<>();
+        try (MappedQueue queue = MappedQueue.open(directory, 256, 0);
+             MappedQueue.Reader reader = queue.reader("main")) {
+            for (int i = 0; i < 100; i++) {
+                queue.append(("record-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            while (reader.poll((buffer, offset, length) -> received.add(read(buffer, offset, length)), 7) > 0) {
+                // keep draining
+            }
+        }
+
+        assertEquals(100, received.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("record-" + i, received.get(i));
+        }
+    }
+
+    @Test
+    void testReaderResumesAfterReopen() throws Exception {
+        List<String> received = new ArrayList<>();
+        try (MappedQueue queue = MappedQueue.open(directory, 256, 0);
+             MappedQueue.Reader reader = queue.reader("audit")) {
+            for (int i = 0; i < 30; i++) {
+                queue.append(("a" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            assertEquals(10, reader.poll((buffer, offset, length) -> received.add(read(buffer, offset, length)), 10));
+        }
+
+        try (MappedQueue queue = MappedQueue.open(directory, 1024, 0);
+             MappedQueue.Reader reader = queue.reader("audit")) {
+            assertEquals(256, queue.getSegmentSize(), "Existing queue keeps its segment size");
+            for (int i = 30; i < 40; i++) {
+                queue.append(("a" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            while (reader.poll((buffer, offset, length) -> received.add(read(buffer, offset, length)), 100) > 0) {
+                // keep draining
+            }
+        }
+
+        assertEquals(40, received.size());
+        for (int i = 0; i < 40; i++) {
+            assertEquals("a" + i, received.get(i));
+        }
+    }
+
+    @Test
+    void testTornTailIsDiscardedOnRecovery() throws Exception {
+        try (MappedQueue queue = MappedQueue.open(directory, 256, 0)) {
+            queue.append(new byte[]{1, 2, 3});
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        // Garbage where the second record's successor header will land, as a torn append would leave.
+        bytes[16] = 42;
+        Files.write(segment, bytes);
+
+        List<Integer> lengths = new ArrayList<>();
+        try (MappedQueue queue = MappedQueue.open(directory, 256, 0);
+             MappedQueue.Reader reader = queue.reader("main")) {
+            queue.append(new byte[]{4, 5});
+            reader.poll((buffer, offset, length) -> lengths.add(length), 10);
+        }
+
+        assertEquals(List.of(3, 2), lengths);
+    }
+
+    @Test
+    void testReaderAheadOfRecoveredEndIsClamped() throws Exception {
+        try (MappedQueue queue = MappedQueue.open(directory, 256, 0);
+             MappedQueue.Reader reader = queue.reader("main")) {
+            queue.append(new byte[]{1, 2, 3});
+            queue.append(new byte[]{4, 5, 6, 7});
+            assertEquals(2, reader.poll((buffer, offset, length) -> { }, 10));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".seg")).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(segment);
+        // The second record never reached the disk, but the reader's position did.
+        Arrays.fill(bytes, 8, 16, (byte) 0);
+        Files.write(segment, bytes);
+
+        List<Integer> lengths = new ArrayList<>();
+        try (MappedQueue queue = MappedQueue.open(directory, 256, 0);
+             MappedQueue.Reader reader = queue.reader("main")) {
+            assertEquals(MappedQueue.position(0, 8), reader.position());
+            queue.append(new byte[]{8, 9});
+            reader.poll((buffer, offset, length) -> lengths.add(length), 10);
+        }
+
+        assertEquals(List.of(2), lengths);
+    }
+
+    @Test
+    void testSegmentLeftUnsealedByCrashDuringRollIsSealedOnRecovery() throws Exception {
+        try (MappedQueue queue = MappedQueue.open(directory, 64, 0)) {
+            queue.append(new byte[20]);
+            queue.append(new byte[16]);
+            assertEquals(MappedQueue.position(1, 0), queue.append(new byte[20]));
+        }
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(path -> path.toString().endsWith(".seg")).sorted().toList();
+        }
+        // The next segment exists but the end marker after the second record was never written.
+        byte[] first = Files.readAllBytes(segments.get(0));
+        Arrays.fill(first, 44, 48, (byte) 0);
+        Files.write(segments.get(0), first);
+        Files.write(segments.get(1), new byte[64]);
+
+        List<Integer> lengths = new ArrayList<>();
+        try (MappedQueue queue = MappedQueue.open(directory, 64, 0);
+             MappedQueue.Reader reader = queue.reader("main")) {
+            queue.append(new byte[8]);
+            reader.poll((buffer, offset, length) -> lengths.add(length), 10);
+        }
+
+        assertEquals(List.of(20, 16, 8), lengths);
+    }
+
+    @Test
+    void testConsumedSegmentsAreDeleted() throws Exception {
+        try (MappedQueue queue = MappedQueue.open(directory, 128, 0);
+             MappedQueue.Reader reader = queue.reader("main")) {
+            for (int i = 0; i < 50; i++) {
+                queue.append(new byte[20]);
+                reader.poll((buffer, offset, length) -> { }, 10);
+            }
+
+            assertTrue(segmentCount() <= 2, "Only the segments the reader still needs are kept");
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    void testSeparateReaderTailsConcurrentWriters() throws Exception {
+        final int WRITERS = 4;
+        final int RECORDS_PER_WRITER = 5_000;
+        long[] lastSeen = new long[WRITERS];
+        int[] received = {0};
+
+        try (MappedQueue queue = MappedQueue.open(directory, 4096, 1);
+             ExecutorService service = Executors.newFixedThreadPool(WRITERS)) {
+            MappedQueue.Reader reader = MappedQueue.openReader(directory, "tail");
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                service.submit(() -> {
+                    ByteBuffer record = ByteBuffer.allocate(12).order(ByteOrder.nativeOrder());
+                    for (long i = 1; i <= RECORDS_PER_WRITER; i++) {
+                        queue.append(record.clear().putInt(0, writer).putLong(4, i));
+                    }
+                    return null;
+                });
+            }
+
+            while (received[0] < WRITERS * RECORDS_PER_WRITER) {
+                reader.take((buffer, offset, length) -> {
+                    int writer = buffer.getInt(offset);
+                    long sequence = buffer.getLong(offset + 4);
+                    assertEquals(lastSeen[writer] + 1, sequence);
+                    lastSeen[writer] = sequence;
+                    received[0]++;
+                }, 256);
+            }
+            reader.close();
+        }
+    }
+
+    @Test
+    void testValidation() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> MappedQueue.open(directory, 10, 0));
+        assertThrows(IOException.class, () -> MappedQueue.openReader(directory, "nobody"));
+
+        MappedQueue queue = MappedQueue.open(directory, 64, 0);
+        assertThrows(IllegalArgumentException.class, () -> queue.append(new byte[queue.maxRecordLength() + 1]));
+        queue.append(new byte[queue.maxRecordLength()]);
+        queue.close();
+        assertThrows(IllegalStateException.class, () -> queue.append(new byte[1]));
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static String read(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
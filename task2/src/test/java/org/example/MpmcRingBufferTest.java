@@ -0,0 +1,158 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpmcRingBufferTest {
+    @Test
+    void testConstructorInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new MpmcRingBuffer<>(0));
+        assertThrows(IllegalArgumentException.class, () -> new MpmcRingBuffer<>(-5));
+    }
+
+    @Test
+    void testRejectsNull() {
+        MpmcRingBuffer<String> buffer = new MpmcRingBuffer<>(4);
+
+        assertThrows(NullPointerException.class, () -> buffer.put(null));
+        assertThrows(NullPointerException.class, () -> buffer.offer(null));
+    }
+
+    @Test
+    void testFifoOrder() throws InterruptedException {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(10);
+
+        buffer.put(1);
+        buffer.put(2);
+        buffer.put(3);
+
+        assertEquals(3, buffer.size());
+        assertEquals(1, buffer.take());
+        assertEquals(2, buffer.take());
+        assertEquals(3, buffer.take());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void testHoldsCapacityMinusOneItems() {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(6);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(5), "Capacity 6 holds five items, like RingBuffer");
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(5));
+        assertNull(new MpmcRingBuffer<Integer>(6).poll());
+    }
+
+    @Test
+    void testCircularBehavior() throws InterruptedException {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(3);
+
+        for (int i = 0; i < 100; i++) {
+            buffer.put(i);
+            buffer.put(i + 1000);
+            assertEquals(i, buffer.take());
+            assertEquals(i + 1000, buffer.take());
+        }
+    }
+
+    @Test
+    @Timeout(2)
+    void testBlocksOnEmpty() throws InterruptedException {
+        MpmcRingBuffer<String> buffer = new MpmcRingBuffer<>(5);
+
+        Thread consumer = new Thread(() -> {
+            try {
+                buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        consumer.start();
+
+        Thread.sleep(100);
+
+        assertEquals(Thread.State.WAITING, consumer.getState());
+
+        consumer.interrupt();
+    }
+
+    @Test
+    @Timeout(2)
+    void testBlocksOnFull() throws InterruptedException {
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(3);
+
+        buffer.put(1);
+        buffer.put(2);
+
+        Thread producer = new Thread(() -> {
+            try {
+                buffer.put(3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        producer.start();
+
+        Thread.sleep(100);
+
+        assertEquals(Thread.State.WAITING, producer.getState());
+
+        assertEquals(1, buffer.take());
+        producer.join();
+        assertEquals(2, buffer.take());
+        assertEquals(3, buffer.take());
+    }
+
+    @Test
+    void testHeavyConcurrencyStressTest() throws InterruptedException {
+        final int CAPACITY = 16;
+        final int THREAD_COUNT = 8;
+        final int ITEMS_PER_THREAD = 20_000;
+
+        MpmcRingBuffer<Integer> buffer = new MpmcRingBuffer<>(CAPACITY);
+        AtomicLong consumedSum = new AtomicLong();
+        CountDownLatch latch = new CountDownLatch(THREAD_COUNT * 2);
+
+        try (ExecutorService service = Executors.newFixedThreadPool(THREAD_COUNT * 2)) {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                service.submit(() -> {
+                    try {
+                        for (int j = 1; j <= ITEMS_PER_THREAD; j++) {
+                            buffer.put(j);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+                service.submit(() -> {
+                    try {
+                        for (int j = 0; j < ITEMS_PER_THREAD; j++) {
+                            consumedSum.addAndGet(buffer.take());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+
+            assertTrue(latch.await(20, TimeUnit.SECONDS));
+        }
+
+        long expected = (long) THREAD_COUNT * ITEMS_PER_THREAD * (ITEMS_PER_THREAD + 1) / 2;
+        assertEquals(expected, consumedSum.get());
+        assertTrue(buffer.isEmpty());
+    }
+}
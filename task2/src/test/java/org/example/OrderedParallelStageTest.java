@@ -0,0 +1,129 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedParallelStageTest {
+    @Test
+    void testRejectsInvalidArguments() {
+        BlockingRing<Integer> ring = new MpmcRingBuffer<>(4);
+        assertThrows(IllegalArgumentException.class, () -> new OrderedParallelStage<>(ring, ring, x -> x, 0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new OrderedParallelStage<>(ring, ring, x -> x, 2, 0));
+    }
+
+    @Test
+    @Timeout(10)
+    void testOutputKeepsInputOrderWhenWorkersFinishOutOfOrder() throws Exception {
+        final int ITEMS = 2_000;
+        BlockingRing<Integer> source = new MpmcRingBuffer<>(64);
+        BlockingRing<Integer> sink = new MpscRingBuffer<>(64);
+        List<Integer> received = new ArrayList<>();
+
+        try (OrderedParallelStage<Integer, Integer> stage = new OrderedParallelStage<>(source, sink, item -> {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextInt(20_000));
+            return item * 2;
+        }, 4, 8)) {
+            stage.start();
+            Thread producer = new Thread(() -> {
+                try {
+                    source.putAll(IntStream.range(0, ITEMS).boxed().toList());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            producer.start();
+
+            while (received.size() < ITEMS) {
+                received.add(sink.take());
+            }
+            producer.join();
+            assertEquals(ITEMS, stage.getEmitted());
+        }
+
+        assertEquals(IntStream.range(0, ITEMS).map(i -> i * 2).boxed().toList(), received);
+    }
+
+    @Test
+    @Timeout(5)
+    void testSlowItemBoundsWorkInFlightToWindow() throws Exception {
+        BlockingRing<Integer> source = new MpmcRingBuffer<>(64);
+        BlockingRing<Integer> sink = new MpscRingBuffer<>(64);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+
+        try (OrderedParallelStage<Integer, Integer> stage = new OrderedParallelStage<>(source, sink, item -> {
+            started.incrementAndGet();
+            if (item == 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return item;
+        }, 3, 4)) {
+            stage.start();
+            source.putAll(IntStream.range(0, 20).boxed().toList());
+
+            Thread.sleep(200);
+            assertEquals(4, started.get(), "Workers stop taking input once the window is full");
+            assertNull(sink.poll(), "Nothing overtakes the slow first item");
+
+            release.countDown();
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i, sink.poll(1, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void testFailedItemIsSkippedWithoutStallingOthers() throws Exception {
+        BlockingRing<Integer> source = new MpmcRingBuffer<>(16);
+        BlockingRing<String> sink = new MpscRingBuffer<>(16);
+
+        try (OrderedParallelStage<Integer, String> stage = new OrderedParallelStage<>(source, sink, item -> {
+            if (item == 2) {
+                throw new IllegalStateException("bad item");
+            }
+            return item == 4 ? null : "item-" + item;
+        }, 2, 4)) {
+            stage.start();
+            source.putAll(List.of(0, 1, 2, 3, 4, 5));
+
+            for (String expected : List.of("item-0", "item-1", "item-3", "item-5")) {
+                assertEquals(expected, sink.poll(1, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    void testErrorInTransformDoesNotStallRemainingWorkers() throws Exception {
+        BlockingRing<Integer> source = new MpmcRingBuffer<>(16);
+        BlockingRing<Integer> sink = new MpscRingBuffer<>(16);
+
+        try (OrderedParallelStage<Integer, Integer> stage = new OrderedParallelStage<>(source, sink, item -> {
+            if (item == 2) {
+                throw new Error("fatal item");
+            }
+            return item;
+        }, 2, 2)) {
+            stage.start();
+            source.putAll(IntStream.range(0, 10).boxed().toList());
+
+            for (int expected : List.of(0, 1, 3, 4, 5, 6, 7, 8, 9)) {
+                assertEquals(expected, sink.poll(1, TimeUnit.SECONDS));
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordRingBufferTest {
+    @Test
+    void testConstructorValidation() {
+        assertThrows(IllegalArgumentException.class, () -> new RecordRingBuffer(16));
+        assertEquals(128, new RecordRingBuffer(100).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new RecordRingBuffer(128).tryClaim(60));
+    }
+
+    @Test
+    void testRecordsRoundTripAcrossWrap() {
+        RecordRingBuffer ring = new RecordRingBuffer(256);
+        List<String> received = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            String message = "message-" + i + "-".repeat(i % 20);
+            write(ring, message);
+            if (i % 3 == 2) {
+                ring.poll((buffer, offset, length) -> received.add(read(buffer, offset, length)), 10);
+            }
+        }
+        ring.poll((buffer, offset, length) -> received.add(read(buffer, offset, length)), 10);
+
+        assertEquals(50, received.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("message-" + i + "-".repeat(i % 20), received.get(i));
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void testClaimFailsWhenFullAndUncommittedRecordBlocksReader() {
+        RecordRingBuffer ring = new RecordRingBuffer(64);
+
+        int first = ring.tryClaim(24);
+        int second = ring.tryClaim(24);
+        assertTrue(first >= 0 && second >= 0);
+        assertEquals(-1, ring.tryClaim(0));
+
+        ring.commit(second);
+        assertEquals(0, ring.poll((buffer, offset, length) -> fail("First record is not committed yet"), 10));
+
+        ring.commit(first);
+        assertEquals(2, ring.poll((buffer, offset, length) -> assertEquals(24, length), 10));
+        assertTrue(ring.tryClaim(24) >= 0);
+    }
+
+    @Test
+    void testClaimWaitsForRoomIncludingWrapPadding() throws Exception {
+        RecordRingBuffer ring = new RecordRingBuffer(128);
+        ring.commit(ring.tryClaim(24));
+        ring.poll((buffer, offset, length) -> { }, 1);
+        ring.commit(ring.tryClaim(48));
+
+        // Less than half the ring is used, but the next record plus padding to the wrap point does not fit.
+        assertEquals(-1, ring.tryClaim(40));
+        FutureTask<Integer> claim = new FutureTask<>(() -> ring.claim(40));
+        Thread producer = new Thread(claim);
+        producer.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (producer.getState() != Thread.State.WAITING && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, producer.getState(), "Producer must block instead of spinning");
+
+        assertEquals(1, ring.poll((buffer, offset, length) -> { }, 1));
+        assertTrue(claim.get(5, TimeUnit.SECONDS) >= 0);
+    }
+
+    @Test
+    void testViewIsReadOnly() {
+        RecordRingBuffer ring = new RecordRingBuffer(64);
+        write(ring, "abc");
+
+        ring.poll((buffer, offset, length) -> assertThrows(java.nio.ReadOnlyBufferException.class,
+                () -> buffer.put(offset, (byte) 1)), 1);
+    }
+
+    @Test
+    void testHotPathDoesNotAllocate() {
+        RecordRingBuffer ring = new RecordRingBuffer(4096);
+        long[] sum = {0};
+        RecordRingBuffer.RecordHandler handler = (buffer, offset, length) -> sum[0] += buffer.getLong(offset);
+        for (int i = 0; i < 100_000; i++) {
+            writeLong(ring, i);
+            ring.poll(handler, 1);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            writeLong(ring, i);
+            ring.poll(handler, 1);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sum[0] > 0);
+        assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes for 100k records");
+    }
+
+    @Test
+    void testConcurrentProducersKeepPerProducerOrder() throws Exception {
+        final int PRODUCERS = 4;
+        final int RECORDS_PER_PRODUCER = 20_000;
+        RecordRingBuffer ring = new RecordRingBuffer(1024);
+        long[] lastSeen = new long[PRODUCERS];
+        int[] received = {0};
+
+        try (ExecutorService service = Executors.newFixedThreadPool(PRODUCERS)) {
+            for (int p = 0; p < PRODUCERS; p++) {
+                int producer = p;
+                service.submit(() -> {
+                    for (long j = 1; j <= RECORDS_PER_PRODUCER; j++) {
+                        int offset = ring.claim(12 + (int) (j % 5) * 8);
+                        ring.buffer().putInt(offset, producer);
+                        ring.buffer().putLong(offset + 4, j);
+                        ring.commit(offset);
+                    }
+                    return null;
+                });
+            }
+
+            while (received[0] < PRODUCERS * RECORDS_PER_PRODUCER) {
+                ring.take((buffer, offset, length) -> {
+                    int producer = buffer.getInt(offset);
+                    long sequence = buffer.getLong(offset + 4);
+                    assertEquals(lastSeen[producer] + 1, sequence);
+                    lastSeen[producer] = sequence;
+                    received[0]++;
+                }, 64);
+            }
+        }
+
+        assertTrue(ring.isEmpty());
+    }
+
+    private static void write(RecordRingBuffer ring, String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        int offset = ring.tryClaim(bytes.length);
+        assertTrue(offset >= 0);
+        ring.buffer().put(offset, bytes);
+        ring.commit(offset);
+    }
+
+    private static void writeLong(RecordRingBuffer ring, long value) {
+        int offset = ring.tryClaim(Long.BYTES);
+        ring.buffer().putLong(offset, value);
+        ring.commit(offset);
+    }
+
+    private static String read(ByteBuffer buffer, int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,192 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBuffersTest {
+    @Test
+    void testFactorySelectsVariant() {
+        assertInstanceOf(SpscRingBuffer.class, RingBuffers.create(8, 1, 1));
+        assertInstanceOf(MpscRingBuffer.class, RingBuffers.create(8, 2, 1));
+        assertInstanceOf(MpmcRingBuffer.class, RingBuffers.create(8, 1, 2));
+        assertInstanceOf(MpmcRingBuffer.class, RingBuffers.create(8, 5, 2));
+
+        assertThrows(IllegalArgumentException.class, () -> RingBuffers.create(8, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RingBuffers.create(0, 1, 1));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 1", "3, 1", "2, 2"})
+    void testHoldsCapacityMinusOneItemsInFifoOrder(int producers, int consumers) {
+        BlockingRing<Integer> ring = RingBuffers.create(6, producers, consumers);
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 5; i++) {
+                assertTrue(ring.offer(i));
+            }
+            assertFalse(ring.offer(5));
+            assertEquals(5, ring.size());
+
+            for (int i = 0; i < 5; i++) {
+                assertEquals(i, ring.poll());
+            }
+            assertNull(ring.poll());
+            assertTrue(ring.isEmpty());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 1", "3, 1"})
+    @Timeout(2)
+    void testBlocksOnFull(int producers, int consumers) throws InterruptedException {
+        BlockingRing<Integer> ring = RingBuffers.create(3, producers, consumers);
+
+        ring.put(1);
+        ring.put(2);
+
+        Thread producer = new Thread(() -> {
+            try {
+                ring.put(3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        producer.start();
+
+        Thread.sleep(100);
+
+        assertEquals(Thread.State.WAITING, producer.getState());
+
+        assertEquals(1, ring.take());
+        producer.join();
+        assertEquals(2, ring.take());
+        assertEquals(3, ring.take());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 1", "4, 1"})
+    void testProducersToSingleConsumerKeepPerProducerOrder(int producers, int consumers) throws InterruptedException {
+        final int ITEMS_PER_PRODUCER = 50_000;
+        BlockingRing<long[]> ring = RingBuffers.create(16, producers, consumers);
+        long[] lastSeen = new long[producers];
+        AtomicLong received = new AtomicLong();
+
+        try (ExecutorService service = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                int producer = p;
+                service.submit(() -> {
+                    for (long j = 1; j <= ITEMS_PER_PRODUCER; j++) {
+                        ring.put(new long[]{producer, j});
+                    }
+                    return null;
+                });
+            }
+
+            for (int i = 0; i < producers * ITEMS_PER_PRODUCER; i++) {
+                long[] item = ring.take();
+                int producer = (int) item[0];
+                assertEquals(lastSeen[producer] + 1, item[1], "Items of one producer arrive in order");
+                lastSeen[producer] = item[1];
+                received.incrementAndGet();
+            }
+        }
+
+        assertEquals((long) producers * ITEMS_PER_PRODUCER, received.get());
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void testLinkedRingBufferImplementsNonBlockingOperations() {
+        RingBuffer<String> buffer = new RingBuffer<>(3);
+
+        assertTrue(buffer.offer("a"));
+        assertTrue(buffer.offer("b"));
+        assertFalse(buffer.offer("c"));
+        assertEquals(2, buffer.size());
+
+        assertEquals("a", buffer.poll());
+        assertEquals("b", buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    static Stream<IntFunction<BlockingRing<Integer>>> rings() {
+        return Stream.of(RingBuffer::new, SpscRingBuffer::new, MpscRingBuffer::new, MpmcRingBuffer::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("rings")
+    void testDrainToRespectsMax(IntFunction<BlockingRing<Integer>> factory) throws InterruptedException {
+        BlockingRing<Integer> ring = factory.apply(8);
+        List<Integer> sink = new ArrayList<>();
+
+        assertEquals(0, ring.drainTo(sink, 10));
+        ring.putAll(List.of(1, 2, 3, 4, 5));
+
+        assertEquals(3, ring.drainTo(sink, 3));
+        assertEquals(List.of(1, 2, 3), sink);
+        assertEquals(2, ring.drainTo(sink, 10));
+        assertEquals(List.of(1, 2, 3, 4, 5), sink);
+        assertTrue(ring.isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource("rings")
+    @Timeout(5)
+    void testPutAllLargerThanCapacityKeepsOrder(IntFunction<BlockingRing<Integer>> factory) throws Exception {
+        BlockingRing<Integer> ring = factory.apply(5);
+        List<Integer> items = IntStream.range(0, 10_000).boxed().toList();
+        List<Integer> received = new ArrayList<>();
+
+        try (ExecutorService service = Executors.newSingleThreadExecutor()) {
+            Future<?> producer = service.submit(() -> {
+                ring.putAll(items);
+                return null;
+            });
+
+            while (received.size() < items.size()) {
+                received.add(ring.take());
+                ring.drainTo(received, 3);
+            }
+            producer.get();
+        }
+
+        assertEquals(items, received);
+    }
+
+    @ParameterizedTest
+    @MethodSource("rings")
+    @Timeout(2)
+    void testTimedOfferAndPoll(IntFunction<BlockingRing<Integer>> factory) throws InterruptedException {
+        BlockingRing<Integer> ring = factory.apply(2);
+
+        assertNull(ring.poll(20, TimeUnit.MILLISECONDS));
+        assertTrue(ring.offer(1, 20, TimeUnit.MILLISECONDS));
+        assertFalse(ring.offer(2, 20, TimeUnit.MILLISECONDS));
+
+        Thread consumer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                ring.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        assertTrue(ring.offer(2, 1, TimeUnit.SECONDS), "Offer succeeds once the consumer frees a slot");
+        assertEquals(2, ring.poll(1, TimeUnit.SECONDS));
+        consumer.join();
+    }
+}
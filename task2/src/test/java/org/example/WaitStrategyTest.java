@@ -0,0 +1,104 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitStrategyTest {
+    static Stream<Supplier<WaitStrategy>> strategies() {
+        return Stream.of(BusySpinWaitStrategy::new, YieldingWaitStrategy::new, ParkingWaitStrategy::new,
+                BlockingWaitStrategy::new);
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    @Timeout(20)
+    void testMpmcStressWithEveryStrategy(Supplier<WaitStrategy> strategy) throws InterruptedException {
+        final int THREAD_COUNT = 2;
+        final int ITEMS_PER_THREAD = 20_000;
+        BlockingRing<Integer> ring = new MpmcRingBuffer<>(256, strategy);
+        AtomicLong consumedSum = new AtomicLong();
+
+        try (ExecutorService service = Executors.newFixedThreadPool(THREAD_COUNT * 2)) {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                service.submit(() -> {
+                    for (int j = 1; j <= ITEMS_PER_THREAD; j++) {
+                        ring.put(j);
+                    }
+                    return null;
+                });
+                service.submit(() -> {
+                    for (int j = 0; j < ITEMS_PER_THREAD; j++) {
+                        consumedSum.addAndGet(ring.take());
+                    }
+                    return null;
+                });
+            }
+        }
+
+        assertEquals((long) THREAD_COUNT * ITEMS_PER_THREAD * (ITEMS_PER_THREAD + 1) / 2, consumedSum.get());
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    @Timeout(2)
+    void testTimedWaitExpires(Supplier<WaitStrategy> strategy) throws InterruptedException {
+        BlockingRing<Integer> ring = new SpscRingBuffer<>(2, strategy);
+
+        long start = System.nanoTime();
+        assertNull(ring.poll(30, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(30));
+
+        assertTrue(ring.offer(1));
+        assertFalse(ring.offer(2, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @ParameterizedTest
+    @MethodSource("strategies")
+    @Timeout(2)
+    void testWaitingThreadCanBeInterrupted(Supplier<WaitStrategy> strategy) throws InterruptedException {
+        BlockingRing<Integer> ring = new SpscRingBuffer<>(2, strategy);
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Thread consumer = new Thread(() -> {
+            try {
+                ring.take();
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+
+        consumer.interrupt();
+        consumer.join();
+        assertTrue(interrupted.get());
+    }
+
+    @Test
+    @Timeout(2)
+    void testBlockingStrategyParksUntilSignalled() throws Exception {
+        BlockingRing<Integer> ring = new SpscRingBuffer<>(2, BlockingWaitStrategy::new);
+
+        try (ExecutorService service = Executors.newSingleThreadExecutor()) {
+            Future<Integer> taken = service.submit(ring::take);
+            Thread.sleep(50);
+            assertFalse(taken.isDone());
+
+            ring.put(7);
+            assertEquals(7, taken.get(1, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testParkingStrategyRejectsNonPositiveInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new ParkingWaitStrategy(10, 0));
+    }
+}